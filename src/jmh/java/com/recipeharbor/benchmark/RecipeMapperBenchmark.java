@@ -0,0 +1,54 @@
+package com.recipeharbor.benchmark;
+
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.mapper.RecipeMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps one recipe between the API and the entity, as every create and update (toEntity) and every read (toDto) does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeMapperBenchmark {
+
+    @Param({"SMALL", "TYPICAL", "LARGE"})
+    private RecipeShape shape;
+
+    private RecipeMapper recipeMapper;
+    private RecipeDto recipeDto;
+    private Recipe recipe;
+
+    @Setup
+    public void setUp() {
+        recipeMapper = new RecipeMapper();
+        recipeDto = shape.recipeDto(1);
+        recipe = shape.recipe(1);
+    }
+
+    @Benchmark
+    public Recipe toEntity() {
+        return recipeMapper.recipeDtoToRecipeEntity(recipeDto);
+    }
+
+    @Benchmark
+    public RecipeDto toDto() {
+        return recipeMapper.recipeEntityToRecipeDto(recipe);
+    }
+}
@@ -0,0 +1,82 @@
+package com.recipeharbor.benchmark;
+
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.mapper.RecipeDtoCodec;
+import com.recipeharbor.mapper.RecipeMapper;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a page of recipes from the BSON the driver receives, the way the search API does: through a Document, the
+ * Recipe entity and the RecipeMapper, or straight into RecipeDto with the RecipeDtoCodec of the fast read path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeReadBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    @Param({"SMALL", "TYPICAL", "LARGE"})
+    private RecipeShape shape;
+
+    private List<RawBsonDocument> page;
+    private MappingMongoConverter converter;
+    private DocumentCodec documentCodec;
+    private RecipeMapper recipeMapper;
+    private RecipeDtoCodec recipeDtoCodec;
+
+    @Setup
+    public void setUp() {
+        converter = MongoConverters.mappingConverter();
+        documentCodec = new DocumentCodec();
+        recipeMapper = new RecipeMapper();
+        recipeDtoCodec = new RecipeDtoCodec();
+
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Document document = new Document();
+            converter.write(shape.recipe(i), document);
+            page.add(new RawBsonDocument(document, documentCodec));
+        }
+    }
+
+    @Benchmark
+    public void entityAndMapper(Blackhole blackhole) {
+        for (RawBsonDocument bson : page) {
+            Document document = bson.decode(documentCodec);
+            RecipeDto recipeDto = recipeMapper.recipeEntityToRecipeDto(converter.read(Recipe.class, document));
+            blackhole.consume(recipeDto);
+        }
+    }
+
+    @Benchmark
+    public void dtoCodec(Blackhole blackhole) {
+        for (RawBsonDocument bson : page) {
+            blackhole.consume(bson.decode(recipeDtoCodec));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.recipeharbor.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.recipeharbor.config.JacksonConfig;
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.dto.RecipePageDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Writes the JSON of the recipe APIs with an object mapper configured as the application's: a single recipe, and a
+ * search page of ten recipes in its envelope.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"SMALL", "TYPICAL", "LARGE"})
+    private RecipeShape shape;
+
+    private ObjectWriter writer;
+    private RecipeDto recipeDto;
+    private RecipePageDto recipePage;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .postConfigurer(JacksonConfig::registerRecipeFieldsFilter)
+                .build();
+        writer = objectMapper.writer();
+        recipeDto = dto(0);
+        recipePage = RecipePageDto.builder()
+                .content(IntStream.range(0, PAGE_SIZE).mapToObj(this::dto).toList())
+                .page(0)
+                .size(PAGE_SIZE)
+                .hasNext(true)
+                .totalElements(42L)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] recipe() throws JsonProcessingException {
+        return writer.writeValueAsBytes(recipeDto);
+    }
+
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return writer.writeValueAsBytes(recipePage);
+    }
+
+    private RecipeDto dto(int i) {
+        RecipeDto dto = shape.recipeDto(i);
+        dto.setId(Integer.toHexString(0x65e841e3 + i) + "6ad9c545baf4c9ef");
+        dto.setVersion(3L);
+        dto.setUpdatedAt(LocalDateTime.of(2024, 3, 6, 12, 30));
+        return dto;
+    }
+}
@@ -0,0 +1,74 @@
+package com.recipeharbor.benchmark;
+
+import com.recipeharbor.dto.Ingredient;
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.entity.Steps;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Sizes of the recipes the benchmarks run on: a quick snack, the typical recipe of the seed data, and the largest
+ * recipes seen in imports.
+ */
+public enum RecipeShape {
+
+    SMALL(3, 3),
+    TYPICAL(10, 8),
+    LARGE(50, 100);
+
+    private final int ingredients;
+    private final int steps;
+
+    RecipeShape(int ingredients, int steps) {
+        this.ingredients = ingredients;
+        this.steps = steps;
+    }
+
+    /**
+     * @return the i-th recipe of this shape as stored, with its id, version and dates
+     */
+    public Recipe recipe(int i) {
+        Recipe recipe = Recipe.builder()
+                .id(new ObjectId().toHexString())
+                .name("Recipe number " + i)
+                .vegetarian(i % 2 == 0)
+                .servings(1 + i % 8)
+                .ingredients(ingredients(i))
+                .instructions(steps(i))
+                .build();
+        LocalDateTime now = LocalDateTime.now();
+        recipe.setCreatedAt(now);
+        recipe.setUpdatedAt(now);
+        recipe.setVersion(0L);
+        return recipe;
+    }
+
+    /**
+     * @return the i-th recipe of this shape as a client sends it, valid and without id
+     */
+    public RecipeDto recipeDto(int i) {
+        return RecipeDto.builder()
+                .name("Recipe number " + i)
+                .isVeg(i % 2 == 0)
+                .servings(1 + i % 8)
+                .ingredients(ingredients(i))
+                .instructions(steps(i))
+                .build();
+    }
+
+    private List<Ingredient> ingredients(int i) {
+        return IntStream.range(0, ingredients)
+                .mapToObj(j -> new Ingredient("Ingredient " + (i + j) % 200, j + 1, j % 3 == 0 ? "g" : "cups"))
+                .toList();
+    }
+
+    private List<Steps> steps(int i) {
+        return IntStream.range(0, steps)
+                .mapToObj(j -> new Steps(j + 1, "Step " + (j + 1) + " of recipe " + i + ": stir the pan over a medium heat and season to taste"))
+                .toList();
+    }
+}
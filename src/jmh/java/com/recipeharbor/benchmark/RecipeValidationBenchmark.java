@@ -0,0 +1,81 @@
+package com.recipeharbor.benchmark;
+
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.dto.SearchCriteriaDto;
+import com.recipeharbor.validators.AtleastOneFieldValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates request bodies with Hibernate Validator, as Spring MVC does for the @Valid bodies: a recipe to create, and
+ * search criteria, whose class level @AtleastOneField runs AtleastOneFieldValidator. The validator alone is measured
+ * apart, to tell its cost from the one of the Bean Validation machinery around it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeValidationBenchmark {
+
+    @Param({"SMALL", "TYPICAL", "LARGE"})
+    private RecipeShape shape;
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private AtleastOneFieldValidator atleastOneFieldValidator;
+    private RecipeDto recipeDto;
+    private SearchCriteriaDto searchCriteriaDto;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        atleastOneFieldValidator = new AtleastOneFieldValidator();
+        recipeDto = shape.recipeDto(1);
+        searchCriteriaDto = SearchCriteriaDto.builder()
+                .vegetarian(true)
+                .servings(4)
+                .includeIngredients(List.of("Ingredient 1", "Ingredient 2"))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<RecipeDto>> recipe() {
+        return validator.validate(recipeDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<SearchCriteriaDto>> searchCriteria() {
+        return validator.validate(searchCriteriaDto);
+    }
+
+    @Benchmark
+    public boolean atleastOneField() {
+        return atleastOneFieldValidator.isValid(searchCriteriaDto, null);
+    }
+}
@@ -0,0 +1,83 @@
+package com.recipeharbor.benchmark;
+
+import com.recipeharbor.dto.SearchCriteriaDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.service.search.RecipeSearchQueryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns search criteria into the filter sent to Mongo: the Criteria built by RecipeSearchQueryBuilder, then mapped
+ * onto the stored field names by the QueryMapper of MongoTemplate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchQueryBenchmark {
+
+    public enum Search {
+        /** vegetarian and servings, the equality shape of the list views */
+        EQUALITY,
+        /** equality plus included ingredients and an instructions regex */
+        INGREDIENTS,
+        /** full-text query sorted by relevance, with a vegetarian filter */
+        TEXT
+    }
+
+    @Param({"EQUALITY", "INGREDIENTS", "TEXT"})
+    private Search search;
+
+    private RecipeSearchQueryBuilder searchQueryBuilder;
+    private QueryMapper queryMapper;
+    private MongoPersistentEntity<?> recipeEntity;
+    private SearchCriteriaDto searchCriteriaDto;
+
+    @Setup
+    public void setUp() {
+        searchQueryBuilder = new RecipeSearchQueryBuilder();
+        MappingMongoConverter converter = MongoConverters.mappingConverter();
+        queryMapper = new QueryMapper(converter);
+        recipeEntity = converter.getMappingContext().getRequiredPersistentEntity(Recipe.class);
+        searchCriteriaDto = switch (search) {
+            case EQUALITY -> SearchCriteriaDto.builder().vegetarian(true).servings(4).build();
+            case INGREDIENTS -> SearchCriteriaDto.builder()
+                    .vegetarian(true)
+                    .servings(4)
+                    .includeIngredients(List.of("Tomatoes", "Basil", "Garlic"))
+                    .instructionsText("oven")
+                    .build();
+            case TEXT -> SearchCriteriaDto.builder().vegetarian(true).text("pesto pasta").sortByRelevance(true).build();
+        };
+    }
+
+    @Benchmark
+    public Query build() {
+        return searchQueryBuilder.build(searchCriteriaDto, null);
+    }
+
+    @Benchmark
+    public Document buildAndMap() {
+        Query query = searchQueryBuilder.build(searchCriteriaDto, null);
+        return queryMapper.getMappedObject(query.getQueryObject(), recipeEntity);
+    }
+}
@@ -0,0 +1,130 @@
+package com.recipeharbor.loadtest;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import com.recipeharbor.entity.Recipe;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk loads synthetic recipes ({@link SyntheticRecipes}) into a Mongo database, in the documents the application
+ * writes. Batches are generated and inserted unordered by a few threads; rerunning with the same seed and count loads
+ * the same recipes, and already loaded ones are skipped as duplicates.
+ * <p>
+ * Options: {@code --uri} (mongodb://localhost:27017/recipes), {@code --count} (1000000), {@code --seed} (42),
+ * {@code --batch-size} (1000), {@code --threads} (4) and {@code --drop} to drop the collection first. The indexes are
+ * left to the application, which builds them on startup, faster than maintaining them during the load.
+ */
+public final class DatasetGenerator {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private DatasetGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Arguments arguments = new Arguments(args);
+        ConnectionString uri = new ConnectionString(arguments.get("uri", "mongodb://localhost:27017/recipes"));
+        long count = arguments.getLong("count", 1_000_000);
+        long seed = arguments.getLong("seed", 42);
+        int batchSize = arguments.getInt("batch-size", 1000);
+        int threads = arguments.getInt("threads", 4);
+
+        SyntheticRecipes syntheticRecipes = new SyntheticRecipes(seed);
+        MappingMongoConverter converter = mappingConverter();
+
+        try (MongoClient mongoClient = MongoClients.create(uri)) {
+            String database = uri.getDatabase() == null ? "recipes" : uri.getDatabase();
+            MongoCollection<Document> collection = mongoClient.getDatabase(database).getCollection(
+                    converter.getMappingContext().getRequiredPersistentEntity(Recipe.class).getCollection());
+            if (arguments.getFlag("drop")) {
+                collection.drop();
+            }
+
+            System.out.printf("Loading %,d recipes (seed %d) into %s.%s%n", count, seed, database, collection.getNamespace().getCollectionName());
+            long start = System.nanoTime();
+            AtomicLong inserted = new AtomicLong();
+            AtomicLong duplicates = new AtomicLong();
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            // Bounds the batches generated ahead of the inserts
+            Semaphore pending = new Semaphore(threads * 2);
+            List<Future<?>> batches = new ArrayList<>();
+            try {
+                for (long from = 0; from < count; from += batchSize) {
+                    long batchStart = from;
+                    long batchEnd = Math.min(from + batchSize, count);
+                    pending.acquire();
+                    batches.add(executor.submit(() -> {
+                        try {
+                            List<Document> documents = new ArrayList<>((int) (batchEnd - batchStart));
+                            for (long index = batchStart; index < batchEnd; index++) {
+                                Document document = new Document();
+                                converter.write(syntheticRecipes.recipe(index), document);
+                                documents.add(document);
+                            }
+                            insert(collection, documents, inserted, duplicates);
+                            long done = inserted.get() + duplicates.get();
+                            if (done / 100_000 != (done - documents.size()) / 100_000) {
+                                System.out.printf("%,d recipes loaded%n", done);
+                            }
+                        } finally {
+                            pending.release();
+                        }
+                    }));
+                }
+                for (Future<?> batch : batches) {
+                    batch.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Inserted %,d recipes (%,d already there) in %.1f s, %,.0f recipes/s%n",
+                    inserted.get(), duplicates.get(), seconds, (inserted.get() + duplicates.get()) / seconds);
+        }
+    }
+
+    private static void insert(MongoCollection<Document> collection, List<Document> documents, AtomicLong inserted,
+                               AtomicLong duplicates) {
+        try {
+            collection.insertMany(documents, new InsertManyOptions().ordered(false));
+            inserted.addAndGet(documents.size());
+        } catch (MongoBulkWriteException e) {
+            if (e.getWriteErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY_ERROR)) {
+                throw e;
+            }
+            inserted.addAndGet(e.getWriteResult().getInsertedCount());
+            duplicates.addAndGet(e.getWriteErrors().size());
+        }
+    }
+
+    /**
+     * A converter set up as MongoDataConfiguration does, so that the documents are the ones the application writes.
+     */
+    private static MappingMongoConverter mappingConverter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
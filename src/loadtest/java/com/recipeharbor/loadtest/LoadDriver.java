@@ -0,0 +1,282 @@
+package com.recipeharbor.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a mix of the recipe APIs against a running application and reports, per endpoint, the throughput and the
+ * latency percentiles of the measured period (after the warmup).
+ * <p>
+ * Reads and updates go to recipes of the loaded dataset, sampled up front through the cursor search and picked with a
+ * Zipfian popularity so that some recipes are hot; deletes only remove recipes the driver created, so a run leaves the
+ * dataset as it found it, give or take the updates.
+ * <p>
+ * By default every worker sends its next request as soon as the previous one answered (closed loop). With
+ * {@code --rate} the requests are sent on a fixed schedule instead, and their latency counts from the time they were
+ * due: a stalled application then shows up in the percentiles instead of only slowing the driver down.
+ * <p>
+ * Options: {@code --base-url} (http://localhost:8080), {@code --duration} and {@code --warmup} in seconds (60, 10),
+ * {@code --concurrency} (16), {@code --rate} in requests per second (0, closed loop), {@code --mix}
+ * (get=60,search=25,create=5,update=5,delete=5), {@code --seed} (42) and {@code --sample} (10000 recipes).
+ */
+public final class LoadDriver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    enum Operation {
+        GET("GET /api/recipe/{id}"),
+        SEARCH("POST /api/recipe/search"),
+        CREATE("POST /api/recipe"),
+        UPDATE("PATCH /api/recipe/{id}"),
+        DELETE("DELETE /api/recipe/{id}");
+
+        private final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final SyntheticRecipes syntheticRecipes;
+    private final Operation[] mix;
+    private final List<String> recipeIds;
+    private final ZipfDistribution recipePopularity;
+    private final Queue<String> createdIds = new ConcurrentLinkedQueue<>();
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+    private LoadDriver(String baseUrl, long seed, Operation[] mix, int sample) throws IOException, InterruptedException {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        this.syntheticRecipes = new SyntheticRecipes(seed);
+        this.mix = mix;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+        this.recipeIds = sampleRecipeIds(sample);
+        if (recipeIds.isEmpty()) {
+            throw new IllegalStateException("No recipe found at " + baseUrl + ", load a dataset with DatasetGenerator first");
+        }
+        this.recipePopularity = new ZipfDistribution(recipeIds.size(), 0.99);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Arguments arguments = new Arguments(args);
+        String baseUrl = arguments.get("base-url", "http://localhost:8080");
+        long durationNanos = TimeUnit.SECONDS.toNanos(arguments.getLong("duration", 60));
+        long warmupNanos = TimeUnit.SECONDS.toNanos(arguments.getLong("warmup", 10));
+        int concurrency = arguments.getInt("concurrency", 16);
+        long rate = arguments.getLong("rate", 0);
+        long seed = arguments.getLong("seed", 42);
+        Operation[] mix = parseMix(arguments.get("mix", "get=60,search=25,create=5,update=5,delete=5"));
+
+        LoadDriver loadDriver = new LoadDriver(baseUrl, seed, mix, arguments.getInt("sample", 10_000));
+        System.out.printf("Sampled %,d recipes, running %d workers for %d s after a %d s warmup, %s%n",
+                loadDriver.recipeIds.size(), concurrency, TimeUnit.NANOSECONDS.toSeconds(durationNanos),
+                TimeUnit.NANOSECONDS.toSeconds(warmupNanos), rate > 0 ? rate + " requests/s" : "closed loop");
+        loadDriver.run(seed, concurrency, rate, warmupNanos, durationNanos);
+        loadDriver.report(durationNanos);
+    }
+
+    private void run(long seed, int concurrency, long rate, long warmupNanos, long durationNanos) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        AtomicLong ticket = new AtomicLong();
+        long intervalNanos = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+
+        List<Thread> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            SplittableRandom random = new SplittableRandom(seed + i);
+            Thread worker = new Thread(() -> {
+                while (true) {
+                    long sentAt;
+                    if (intervalNanos > 0) {
+                        sentAt = start + ticket.getAndIncrement() * intervalNanos;
+                        long wait = sentAt - System.nanoTime();
+                        if (wait > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                    } else {
+                        sentAt = System.nanoTime();
+                    }
+                    if (sentAt >= end) {
+                        return;
+                    }
+                    Operation operation = mix[random.nextInt(mix.length)];
+                    int status = send(operation, random);
+                    if (sentAt >= measureFrom) {
+                        stats.get(operation).record(System.nanoTime() - sentAt, status);
+                    }
+                }
+            }, "load-driver-" + i);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    /**
+     * @return the HTTP status, or 0 when no response came back
+     */
+    private int send(Operation operation, SplittableRandom random) {
+        try {
+            return switch (operation) {
+                case GET -> exchange(request("/api/recipe/" + hotRecipeId(random)).GET()).statusCode();
+                case SEARCH -> exchange(request("/api/recipe/search?page=" + random.nextInt(3))
+                        .POST(json(syntheticRecipes.searchCriteria(random)))).statusCode();
+                case CREATE -> create(random);
+                case UPDATE -> exchange(request("/api/recipe/" + hotRecipeId(random))
+                        .method("PATCH", json(Map.of("servings", 1 + random.nextInt(20))))).statusCode();
+                case DELETE -> {
+                    String recipeId = createdIds.poll();
+                    // Nothing created yet to delete, create instead so that the mix keeps its writes
+                    yield recipeId == null ? create(random)
+                            : exchange(request("/api/recipe/" + recipeId).DELETE()).statusCode();
+                }
+            };
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private int create(SplittableRandom random) throws IOException, InterruptedException {
+        HttpResponse<String> response = exchange(request("/api/recipe").POST(json(syntheticRecipes.recipeDto(random))));
+        if (response.statusCode() == 201) {
+            createdIds.add(objectMapper.readTree(response.body()).get("id").asText());
+        }
+        return response.statusCode();
+    }
+
+    private String hotRecipeId(SplittableRandom random) {
+        return recipeIds.get(recipePopularity.sample(random));
+    }
+
+    /**
+     * Pages through the vegetarian and then the other recipes with the cursor search, reading only their ids.
+     */
+    private List<String> sampleRecipeIds(int sample) throws IOException, InterruptedException {
+        List<String> ids = new ArrayList<>(sample);
+        for (boolean vegetarian : new boolean[]{true, false}) {
+            int target = vegetarian ? sample / 2 : sample;
+            String cursor = "";
+            while (cursor != null && ids.size() < target) {
+                HttpResponse<String> response = exchange(request("/api/recipe/search?size=100&fields=id&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8))
+                        .POST(json(Map.of("vegetarian", vegetarian))));
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("Search answered " + response.statusCode() + ": " + response.body());
+                }
+                JsonNode page = objectMapper.readTree(response.body());
+                page.get("content").forEach(recipe -> ids.add(recipe.get("id").asText()));
+                cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+            }
+        }
+        return ids.size() > sample ? ids.subList(0, sample) : ids;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private HttpResponse<String> exchange(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void report(long durationNanos) {
+        double seconds = durationNanos / 1e9;
+        System.out.printf("%n%-26s %10s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        long total = 0;
+        for (Operation operation : Operation.values()) {
+            Stats operationStats = stats.get(operation);
+            Histogram latencies = operationStats.latencies;
+            long requests = latencies.getTotalCount();
+            if (requests == 0) {
+                continue;
+            }
+            total += requests;
+            System.out.printf("%-26s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    operation.endpoint, requests, operationStats.errors.sum(), requests / seconds,
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)), millis(latencies.getMaxValue()));
+        }
+        System.out.printf("%-26s %10d %8s %10.1f%n", "total", total, "", total / seconds);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * Expands {@code get=60,search=25,...} into a table of 100 (or the sum of the weights) operations to draw from.
+     */
+    private static Operation[] parseMix(String mix) {
+        List<Operation> operations = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] weight = entry.trim().split("=");
+            Operation operation = Operation.valueOf(weight[0].trim().toUpperCase());
+            for (int i = Integer.parseInt(weight[1].trim()); i > 0; i--) {
+                operations.add(operation);
+            }
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("The mix '" + mix + "' has no operation");
+        }
+        return operations.toArray(Operation[]::new);
+    }
+
+    private static final class Stats {
+
+        /** Microseconds, auto resized and safe for concurrent recording */
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long latencyNanos, int status) {
+            latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            if (status < 200 || status >= 300) {
+                errors.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.recipeharbor.loadtest;
+
+import com.recipeharbor.dto.Ingredient;
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.dto.SearchCriteriaDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.entity.Steps;
+import org.bson.types.ObjectId;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generates recipes that look like the real ones: ingredients drawn from a vocabulary of about a thousand names with a
+ * Zipfian popularity (salt and onions everywhere, saffron rarely), names of 5 to 30 characters, 3 to 20 ingredients and
+ * 3 to 15 instructions of one or two sentences.
+ * <p>
+ * The recipe at an index only depends on the seed and the index, so a dataset is reproduced exactly by generating the
+ * same range with the same seed, in any order and on any number of threads. The recipes are dated from 2023 onwards in
+ * the order of their index, with an id made of that date and the index.
+ */
+final class SyntheticRecipes {
+
+    private static final String[] BASE_INGREDIENTS = {
+            "Salt", "Onions", "Garlic", "Olive Oil", "Butter", "Black Pepper", "Tomatoes", "Eggs", "Flour", "Sugar",
+            "Milk", "Lemon", "Parsley", "Basil", "Potatoes", "Carrots", "Rice", "Chicken", "Ginger", "Cumin",
+            "Paprika", "Cream", "Cheddar", "Parmesan", "Spinach", "Mushrooms", "Bell Peppers", "Chickpeas", "Lentils", "Beef",
+            "Coriander", "Chilli", "Honey", "Soy Sauce", "Vinegar", "Yogurt", "Celery", "Thyme", "Rosemary", "Oregano",
+            "Pasta", "Noodles", "Coconut Milk", "Tofu", "Pork", "Salmon", "Shrimp", "Avocado", "Zucchini", "Eggplant",
+            "Pumpkin", "Cabbage", "Peas", "Corn", "Beans", "Mint", "Cinnamon", "Nutmeg", "Turmeric", "Saffron"
+    };
+    private static final String[] VARIANTS = {
+            "", "Fresh ", "Dried ", "Chopped ", "Smoked ", "Ground ", "Roasted ", "Organic ", "Frozen ", "Sliced ",
+            "Grated ", "Crushed ", "Minced ", "Toasted ", "Baby ", "Wild "
+    };
+    private static final String[] DISHES = {
+            "Curry", "Salad", "Soup", "Stew", "Pasta", "Risotto", "Tart", "Bake", "Stir Fry", "Pie",
+            "Tacos", "Burger", "Omelette", "Gratin", "Skewers", "Bowl", "Sandwich", "Casserole", "Pilaf", "Dal"
+    };
+    private static final String[] STYLES = {
+            "Spicy", "Creamy", "Smoky", "Quick", "Classic", "Rustic", "Crispy", "Herby", "Zesty", "Hearty", "Easy", "Sunday"
+    };
+    private static final String[] VERBS = {
+            "Chop", "Slice", "Stir", "Simmer", "Boil", "Fry", "Roast", "Bake", "Whisk", "Season", "Grill", "Toss", "Fold", "Blend"
+    };
+    private static final String[] DETAILS = {
+            "over a medium heat until golden", "for ten minutes, stirring from time to time", "with a pinch of salt",
+            "until soft and fragrant", "in a large bowl", "in the oven at 180 degrees", "until the sauce thickens",
+            "and set aside to cool", "then taste and adjust the seasoning", "with the lid on until tender"
+    };
+    private static final String[] UNITS = {"g", "kg", "ml", "cups", "tbsp", "tsp", "unit", "pinch"};
+
+    private static final long FIRST_CREATED_AT = LocalDateTime.of(2023, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final long SECONDS_BETWEEN_RECIPES = 60;
+
+    private final long seed;
+    private final List<String> ingredientNames;
+    private final ZipfDistribution ingredientPopularity;
+
+    SyntheticRecipes(long seed) {
+        this.seed = seed;
+        // Ranked so that the plain base ingredients, in their list order, are the most popular ones
+        List<String> names = new ArrayList<>(BASE_INGREDIENTS.length * VARIANTS.length);
+        for (String variant : VARIANTS) {
+            for (String base : BASE_INGREDIENTS) {
+                names.add(variant + base);
+            }
+        }
+        this.ingredientNames = List.copyOf(names);
+        this.ingredientPopularity = new ZipfDistribution(ingredientNames.size(), 1.1);
+    }
+
+    /**
+     * @return the recipe at the given index, as stored by the application
+     */
+    Recipe recipe(long index) {
+        SplittableRandom random = randomFor(index);
+        long createdAt = FIRST_CREATED_AT + index * SECONDS_BETWEEN_RECIPES;
+        LocalDateTime created = LocalDateTime.ofEpochSecond(createdAt, 0, ZoneOffset.UTC);
+        Recipe recipe = Recipe.builder()
+                .id(id(createdAt, index))
+                .name(name(random))
+                .vegetarian(random.nextInt(100) < 40)
+                .servings(servings(random))
+                .ingredients(ingredients(random))
+                .instructions(instructions(random))
+                .build();
+        recipe.setCreatedAt(created);
+        recipe.setUpdatedAt(created);
+        recipe.setVersion(0L);
+        return recipe;
+    }
+
+    /**
+     * @return a new recipe as a client sends it to the create API
+     */
+    RecipeDto recipeDto(SplittableRandom random) {
+        return RecipeDto.builder()
+                .name(name(random))
+                .isVeg(random.nextInt(100) < 40)
+                .servings(servings(random))
+                .ingredients(ingredients(random))
+                .instructions(instructions(random))
+                .build();
+    }
+
+    /**
+     * @return search criteria in the proportions of the search shapes used by the clients
+     */
+    SearchCriteriaDto searchCriteria(SplittableRandom random) {
+        int shape = random.nextInt(100);
+        SearchCriteriaDto.SearchCriteriaDtoBuilder criteria = SearchCriteriaDto.builder();
+        if (shape < 30) {
+            criteria.vegetarian(random.nextBoolean()).servings(servings(random));
+        } else if (shape < 55) {
+            criteria.includeIngredients(random.nextInt(3) == 0 ? List.of(ingredient(random), ingredient(random)) : List.of(ingredient(random)));
+        } else if (shape < 65) {
+            criteria.vegetarian(true).excludeIngredients(List.of(ingredient(random)));
+        } else if (shape < 80) {
+            criteria.text(BASE_INGREDIENTS[ingredientPopularity.sample(random) % BASE_INGREDIENTS.length]);
+        } else if (shape < 90) {
+            criteria.instructionsText(VERBS[random.nextInt(VERBS.length)].toLowerCase());
+        } else {
+            criteria.vegetarian(random.nextBoolean());
+        }
+        return criteria.build();
+    }
+
+    /**
+     * An ObjectId made of the creation date and the index, where the driver would fill in random bytes.
+     */
+    private static String id(long createdAt, long index) {
+        return new ObjectId(ByteBuffer.allocate(12).putInt((int) createdAt).putLong(index).flip()).toHexString();
+    }
+
+    private SplittableRandom randomFor(long index) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+    }
+
+    private String ingredient(SplittableRandom random) {
+        return ingredientNames.get(ingredientPopularity.sample(random));
+    }
+
+    private static String name(SplittableRandom random) {
+        String dish = DISHES[random.nextInt(DISHES.length)];
+        String base = BASE_INGREDIENTS[random.nextInt(BASE_INGREDIENTS.length)];
+        String name = STYLES[random.nextInt(STYLES.length)] + " " + base + " " + dish;
+        // The API accepts names of 5 to 30 characters
+        return name.length() <= 30 ? name : base + " " + dish;
+    }
+
+    private static int servings(SplittableRandom random) {
+        // Mostly 2 to 6, up to the maximum of 20 the API accepts
+        return random.nextInt(10) < 8 ? 2 + random.nextInt(5) : 1 + random.nextInt(20);
+    }
+
+    private List<Ingredient> ingredients(SplittableRandom random) {
+        int count = 3 + Math.min(random.nextInt(10) + random.nextInt(10), 17);
+        Set<String> names = new LinkedHashSet<>();
+        for (int attempt = 0; names.size() < count && attempt < count * 4; attempt++) {
+            names.add(ingredient(random));
+        }
+        return names.stream()
+                .map(name -> new Ingredient(name, 1 + random.nextInt(500), UNITS[random.nextInt(UNITS.length)]))
+                .toList();
+    }
+
+    private static List<Steps> instructions(SplittableRandom random) {
+        int count = 3 + random.nextInt(13);
+        List<Steps> steps = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String description = sentence(random);
+            if (random.nextInt(3) == 0) {
+                description += " " + sentence(random);
+            }
+            steps.add(new Steps(i + 1, description));
+        }
+        return steps;
+    }
+
+    private static String sentence(SplittableRandom random) {
+        return VERBS[random.nextInt(VERBS.length)] + " the " + BASE_INGREDIENTS[random.nextInt(BASE_INGREDIENTS.length)].toLowerCase()
+                + " " + DETAILS[random.nextInt(DETAILS.length)] + ".";
+    }
+}
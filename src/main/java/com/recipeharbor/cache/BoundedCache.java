@@ -0,0 +1,216 @@
+package com.recipeharbor.cache;
+
+import com.recipeharbor.dto.CacheStatsDto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * In-process read-through cache bounded by size and by time since the value was written.
+ * <ul>
+ *     <li>Reads are lock free. When the cache grows past its maximum size, the least recently accessed
+ *     entries are evicted in one batch down to 90% of the maximum.</li>
+ *     <li>An entry read after {@code refreshAfterWrite} is reloaded in the background while the current
+ *     value keeps being served, so hot keys never expire on the request path.</li>
+ *     <li>Writers use {@link #put} and {@link #invalidate} after the write reached the database. Every write
+ *     bumps a write epoch under the lock of the key's bin, and a loaded value is only installed if no write
+ *     happened since its load started. A load racing with a write can therefore never install the value
+ *     the write replaced, and once a write returns every reader sees its outcome.</li>
+ * </ul>
+ * Absent values ({@code null} from the loader) are not cached.
+ */
+@Slf4j
+public class BoundedCache<K, V> {
+
+    private static final int EPOCH_STRIPES = 64;
+
+    private final String name;
+    private final int maximumSize;
+    private final long expireAfterWriteNanos;
+    private final long refreshAfterWriteNanos;
+    private final Executor refreshExecutor;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray writeEpochs = new AtomicLongArray(EPOCH_STRIPES);
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param refreshAfterWriteMillis age after which a read triggers a background reload, {@code 0} to disable
+     */
+    public BoundedCache(String name, int maximumSize, long expireAfterWriteMillis, long refreshAfterWriteMillis,
+                        Executor refreshExecutor) {
+        this.name = name;
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteNanos = expireAfterWriteMillis * 1_000_000;
+        this.refreshAfterWriteNanos = refreshAfterWriteMillis * 1_000_000;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Returns the cached value of the key, loading it with the loader on a miss.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long now = System.nanoTime();
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            long age = now - entry.writtenAt;
+            if (age < expireAfterWriteNanos) {
+                hits.increment();
+                entry.lastAccess = now;
+                if (refreshAfterWriteNanos > 0 && age >= refreshAfterWriteNanos && entry.refreshing.compareAndSet(false, true)) {
+                    refreshExecutor.execute(() -> refresh(key, loader));
+                }
+                return entry.value;
+            }
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return load(key, loader);
+    }
+
+    /**
+     * Returns the cached value of the key without loading it, {@code null} when absent or expired.
+     */
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || System.nanoTime() - entry.writtenAt >= expireAfterWriteNanos) {
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Writes through the value of the key after it has been written to the database.
+     */
+    public void put(K key, V value) {
+        entries.compute(key, (k, current) -> {
+            writeEpochs.incrementAndGet(stripe(key));
+            return new Entry<>(value);
+        });
+        evictIfNeeded();
+    }
+
+    /**
+     * Drops the key after it has been removed from (or changed in) the database.
+     */
+    public void invalidate(K key) {
+        entries.compute(key, (k, current) -> {
+            writeEpochs.incrementAndGet(stripe(key));
+            return null;
+        });
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < EPOCH_STRIPES; i++) {
+            writeEpochs.incrementAndGet(i);
+        }
+        entries.clear();
+    }
+
+    public CacheStatsDto stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        return new CacheStatsDto(name, entries.size(), maximumSize, hitCount, missCount,
+                requests == 0 ? 0 : (double) hitCount / requests, loads.sum(), refreshes.sum(), evictions.sum());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private V load(K key, Function<K, V> loader) {
+        long epoch = writeEpochs.get(stripe(key));
+        V value = loader.apply(key);
+        loads.increment();
+        if (value != null) {
+            install(key, value, epoch);
+        }
+        return value;
+    }
+
+    private void refresh(K key, Function<K, V> loader) {
+        try {
+            long epoch = writeEpochs.get(stripe(key));
+            V value = loader.apply(key);
+            refreshes.increment();
+            if (value != null) {
+                install(key, value, epoch);
+            } else {
+                entries.compute(key, (k, current) -> writeEpochs.get(stripe(k)) == epoch ? null : current);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Refresh of {} in cache {} failed", key, name, e);
+        } finally {
+            // The entry survives when the reload failed or lost against a write, let a later read retry
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                entry.refreshing.set(false);
+            }
+        }
+    }
+
+    private void install(K key, V value, long epoch) {
+        entries.compute(key, (k, current) -> writeEpochs.get(stripe(k)) == epoch ? new Entry<>(value) : current);
+        evictIfNeeded();
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (EPOCH_STRIPES - 1);
+    }
+
+    private void evictIfNeeded() {
+        if (entries.size() <= maximumSize || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = maximumSize - maximumSize / 10;
+            int excess = entries.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+            List<Map.Entry<K, Entry<V>>> candidates = new ArrayList<>(entries.entrySet());
+            candidates.sort(Comparator.comparingLong(candidate -> candidate.getValue().lastAccess));
+            for (int i = 0; i < excess && i < candidates.size(); i++) {
+                Map.Entry<K, Entry<V>> candidate = candidates.get(i);
+                if (entries.remove(candidate.getKey(), candidate.getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long writtenAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long lastAccess;
+
+        private Entry(V value) {
+            this.value = value;
+            this.writtenAt = System.nanoTime();
+            this.lastAccess = writtenAt;
+        }
+    }
+}
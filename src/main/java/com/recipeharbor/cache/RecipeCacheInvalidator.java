@@ -0,0 +1,37 @@
+package com.recipeharbor.cache;
+
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.service.event.RecipeChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Drops the recipes written by other nodes from the recipe cache of the service.
+ * <p>
+ * The service puts or drops the recipes it writes itself, but the writes of other nodes only arrive as the
+ * {@link RecipeChangedEvent}s the ingredient index publishes from its change stream. A cached recipe is kept when the
+ * event carries the version it already holds (the echo of a write of this node) and dropped otherwise, so the next
+ * read loads it again. Without a running change stream the writes of other nodes are only seen once the entry expires.
+ */
+@Component
+public class RecipeCacheInvalidator {
+
+    private final BoundedCache<String, Recipe> recipeCache;
+
+    public RecipeCacheInvalidator(BoundedCache<String, Recipe> recipeCache) {
+        this.recipeCache = recipeCache;
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        Recipe cachedRecipe = recipeCache.getIfPresent(event.getRecipeId());
+        Recipe changedRecipe = event.getRecipe();
+        if (cachedRecipe == null || changedRecipe == null
+                || !Objects.equals(cachedRecipe.getVersion(), changedRecipe.getVersion())) {
+            // Also invalidated when absent, so that a load racing with the write does not install the replaced recipe
+            recipeCache.invalidate(event.getRecipeId());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.recipeharbor.config;
+
+import com.recipeharbor.cache.BoundedCache;
+import com.recipeharbor.controller.RecipeResponseCache;
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.service.search.SearchResultKey;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Slice;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Cache of recipe entities by id in front of the repository, kept current by the service write methods.
+     */
+    @Bean
+    public BoundedCache<String, Recipe> recipeCache(@Value("${recipeharbor.cache.recipes.maximum-size:10000}") int maximumSize,
+                                                    @Value("${recipeharbor.cache.recipes.expire-after-write-millis:600000}") long expireAfterWriteMillis,
+                                                    @Value("${recipeharbor.cache.recipes.refresh-after-write-millis:60000}") long refreshAfterWriteMillis,
+                                                    @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        return new BoundedCache<>("recipes", maximumSize, expireAfterWriteMillis, refreshAfterWriteMillis, taskExecutor);
+    }
+
+    /**
+     * Cache of search result pages, cleared by every recipe write (see SearchResultCache).
+     */
+    @Bean
+    public BoundedCache<SearchResultKey, Slice<RecipeDto>> searchCache(@Value("${recipeharbor.cache.search.maximum-size:1000}") int maximumSize,
+                                                                       @Value("${recipeharbor.cache.search.expire-after-write-millis:30000}") long expireAfterWriteMillis,
+                                                                       @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        return new BoundedCache<>("search", maximumSize, expireAfterWriteMillis, 0, taskExecutor);
+    }
+
+    /**
+     * Cache of serialized recipe responses by id, dropped by every write of the recipe (see RecipeResponseCache).
+     */
+    @Bean
+    public BoundedCache<String, RecipeResponseCache.SerializedRecipe> responseCache(@Value("${recipeharbor.cache.responses.maximum-size:10000}") int maximumSize,
+                                                                                    @Value("${recipeharbor.cache.responses.expire-after-write-millis:600000}") long expireAfterWriteMillis,
+                                                                                    @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        return new BoundedCache<>("responses", maximumSize, expireAfterWriteMillis, 0, taskExecutor);
+    }
+}
@@ -0,0 +1,60 @@
+package com.recipeharbor.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.recipeharbor.dto.RecipeDto;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Id of the property filter of RecipeDto, set by a response that only carries some of the recipe fields.
+     */
+    public static final String RECIPE_FIELDS_FILTER = "recipeFields";
+
+    /**
+     * Media type of the Smile binary JSON format, {@code application/cbor} is {@code MediaType.APPLICATION_CBOR_VALUE}.
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer recipeFieldsFilterCustomizer() {
+        return builder -> builder.postConfigurer(JacksonConfig::registerRecipeFieldsFilter);
+    }
+
+    /**
+     * CBOR and Smile converters built from the Boot configured builder, so that they share the modules, settings and
+     * fields filter of the JSON object mapper. They replace the converters Spring MVC registers for these formats.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Makes RecipeDto filterable by {@link #RECIPE_FIELDS_FILTER}. The filter is declared with a mix-in so that the
+     * DTO stays usable by object mappers without filters, and unless a response sets it every property is written.
+     */
+    public static void registerRecipeFieldsFilter(ObjectMapper objectMapper) {
+        objectMapper.addMixIn(RecipeDto.class, RecipeFieldsFilterMixIn.class);
+        objectMapper.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    @JsonFilter(RECIPE_FIELDS_FILTER)
+    private interface RecipeFieldsFilterMixIn {
+    }
+}
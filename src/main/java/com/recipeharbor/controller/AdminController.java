@@ -0,0 +1,128 @@
+package com.recipeharbor.controller;
+
+import com.recipeharbor.cache.BoundedCache;
+import com.recipeharbor.dto.CacheStatsDto;
+import com.recipeharbor.dto.ErrorResponseDto;
+import com.recipeharbor.dto.IndexReportDto;
+import com.recipeharbor.dto.SearchShapePlanDto;
+import com.recipeharbor.dto.SlowSearchDto;
+import com.recipeharbor.index.RecipeIndexManager;
+import com.recipeharbor.index.SearchPlanInspector;
+import com.recipeharbor.service.search.SearchMetrics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ *  REST APIs Controller for operational insight into the Recipe Harbor Application
+ */
+@Tag(
+        name = "Admin REST APIs in Recipe Harbor Application",
+        description = "REST API's in RecipeHarbor to inspect the state of the application and its database."
+)
+@RestController
+@RequestMapping(path = "/api/admin", produces = MediaType.APPLICATION_JSON_VALUE)
+public class AdminController {
+
+    private final RecipeIndexManager recipeIndexManager;
+    private final SearchPlanInspector searchPlanInspector;
+    private final SearchMetrics searchMetrics;
+    private final List<BoundedCache<?, ?>> caches;
+
+    public AdminController(RecipeIndexManager recipeIndexManager,
+                           SearchPlanInspector searchPlanInspector,
+                           SearchMetrics searchMetrics,
+                           List<BoundedCache<?, ?>> caches) {
+        this.recipeIndexManager = recipeIndexManager;
+        this.searchPlanInspector = searchPlanInspector;
+        this.searchMetrics = searchMetrics;
+        this.caches = caches;
+    }
+
+    @Operation(
+            summary = "Index Report REST API",
+            description = "REST API to fetch the build status of the managed indexes and the query plan of every search shape"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/indexes")
+    public ResponseEntity<IndexReportDto> getIndexReport(@Parameter(description = "Only report the search shapes that still "
+                                                                 + "need a collection scan or an in-memory sort")
+                                                         @RequestParam(defaultValue = "false") boolean onlyUncovered) {
+        List<SearchShapePlanDto> shapes = searchPlanInspector.inspectAll();
+        if (onlyUncovered) {
+            shapes = shapes.stream().filter(shape -> shape.isCollectionScan() || shape.isInMemorySort()).toList();
+        }
+        IndexReportDto indexReportDto = new IndexReportDto(recipeIndexManager.getIndexStatuses(), shapes);
+        return ResponseEntity.status(HttpStatus.OK).body(indexReportDto);
+    }
+
+    @Operation(
+            summary = "Slow Searches REST API",
+            description = "REST API to fetch the last searches slower than the slow search threshold, with their query plan"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/slow-searches")
+    public ResponseEntity<List<SlowSearchDto>> getSlowSearches() {
+        return ResponseEntity.status(HttpStatus.OK).body(searchMetrics.getSlowSearches());
+    }
+
+    @Operation(
+            summary = "Cache Statistics REST API",
+            description = "REST API to fetch the hit, miss and eviction statistics of the in-process caches"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStatsDto>> getCacheStats() {
+        List<CacheStatsDto> cacheStats = caches.stream().map(BoundedCache::stats).toList();
+        return ResponseEntity.status(HttpStatus.OK).body(cacheStats);
+    }
+}
@@ -1,10 +1,21 @@
 package com.recipeharbor.controller;
 
+import com.recipeharbor.config.JacksonConfig;
+import com.recipeharbor.dto.BatchDeleteResultDto;
+import com.recipeharbor.dto.BatchItemResultDto;
 import com.recipeharbor.dto.ErrorResponseDto;
+import com.recipeharbor.dto.PantrySearchDto;
 import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.dto.RecipePageDto;
+import com.recipeharbor.dto.RecipePatchDto;
 import com.recipeharbor.dto.SearchCriteriaDto;
 import com.recipeharbor.service.IRecipeService;
+import com.recipeharbor.service.RecipeFields;
+import com.recipeharbor.service.RecipeStamp;
+import com.recipeharbor.service.search.CountMode;
+import com.recipeharbor.service.search.CursorSlice;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,11 +25,16 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 /**
  * Author:  Ashwin Kumar
@@ -29,14 +45,17 @@ import org.springframework.web.bind.annotation.*;
         description = "REST API's in RecipeHarbor to Create, Read, Update and Delete Recipe details and Search for Recipe details based on different criterias."
 )
 @RestController
-@RequestMapping(path = "/api/recipe", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(path = "/api/recipe",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, JacksonConfig.APPLICATION_SMILE_VALUE})
 @Slf4j
 public class RecipeController {
 
     private final IRecipeService recipeService;
+    private final RecipeResponseCache recipeResponseCache;
 
-    public RecipeController(IRecipeService recipeService) {
+    public RecipeController(IRecipeService recipeService, RecipeResponseCache recipeResponseCache) {
         this.recipeService = recipeService;
+        this.recipeResponseCache = recipeResponseCache;
     }
 
     @Operation(
@@ -46,7 +65,10 @@ public class RecipeController {
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
-                    description = "HTTP Status OK"
+                    description = "HTTP Status OK",
+                    content = @Content(
+                            schema = @Schema(implementation = RecipeDto.class)
+                    )
             ),
             @ApiResponse(
                     responseCode = "500",
@@ -55,6 +77,10 @@ public class RecipeController {
                             schema = @Schema(implementation = ErrorResponseDto.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Not Modified (If-None-Match or If-Modified-Since still match the recipe)"
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Not Found (Recipe Not Found)"
@@ -62,9 +88,102 @@ public class RecipeController {
     }
     )
     @GetMapping("/{recipeId}")
-    public ResponseEntity<RecipeDto> getRecipeById(@PathVariable @NotNull(message = "Recipe ID cannot be null") String recipeId) {
-        RecipeDto recipeDto = recipeService.getRecipeById(recipeId);
-        return ResponseEntity.status(HttpStatus.OK).body(recipeDto);
+    public ResponseEntity<?> getRecipeById(@PathVariable @NotNull(message = "Recipe ID cannot be null") String recipeId,
+                                                   @Parameter(description = "Comma separated recipe fields to return, eg: name,veg,servings (all by default)")
+                                                   @RequestParam(name = RecipeFieldsResponseBodyAdvice.FIELDS_PARAMETER, required = false) String fields,
+                                                   WebRequest webRequest) {
+        RecipeFields recipeFields = RecipeFields.parse(fields);
+        String ifNoneMatch = webRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+        RecipeStamp recipeStamp = null;
+        if (ifNoneMatch != null || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            // The check only needs the version and the date of the recipe, the recipe is loaded when it changed
+            recipeStamp = recipeService.getRecipeStamp(recipeId);
+            String eTag = RecipeETags.of(recipeStamp.version(), recipeFields);
+            if (recipeFields.isAll() && RecipeETags.matchesGzip(ifNoneMatch, eTag)) {
+                eTag = RecipeETags.gzip(eTag);
+            }
+            if (webRequest.checkNotModified(eTag, RecipeETags.lastModified(recipeStamp.updatedAt()))) {
+                // 304 Not Modified with the validators already set on the response
+                return null;
+            }
+        }
+        if (recipeFields.isAll() && recipeResponseCache.isEnabled() && negotiatesJson(webRequest.getHeader(HttpHeaders.ACCEPT))) {
+            if (recipeStamp == null) {
+                recipeStamp = recipeService.getRecipeStamp(recipeId);
+            }
+            return getSerializedRecipe(recipeId, recipeStamp, webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        }
+        RecipeDto recipeDto = recipeService.getRecipeById(recipeId, recipeFields);
+        HttpHeaders headers = new HttpHeaders();
+        RecipeETags.addValidators(headers, recipeDto, recipeFields);
+        return ResponseEntity.status(HttpStatus.OK).headers(headers).body(recipeDto);
+    }
+
+    /**
+     * Answers with the cached JSON bytes of the recipe, gzipped when they were worth compressing and the client accepts it.
+     * The gzipped response is another representation and carries its own ETag.
+     */
+    private ResponseEntity<byte[]> getSerializedRecipe(String recipeId, RecipeStamp recipeStamp, String acceptEncoding) {
+        RecipeResponseCache.SerializedRecipe serializedRecipe = recipeResponseCache.get(recipeId, recipeStamp,
+                () -> recipeService.getRecipeById(recipeId, RecipeFields.ALL));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        RecipeETags.addValidators(headers, serializedRecipe.version(), serializedRecipe.updatedAt(), RecipeFields.ALL);
+        byte[] body = serializedRecipe.json();
+        if (serializedRecipe.gzip() != null) {
+            headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+            if (acceptsGzip(acceptEncoding)) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                headers.setETag(RecipeETags.gzip(RecipeETags.of(serializedRecipe.version())));
+                body = serializedRecipe.gzip();
+            }
+        }
+        return ResponseEntity.status(HttpStatus.OK).headers(headers).body(body);
+    }
+
+    /**
+     * Tells whether content negotiation picks JSON, the format of the cached responses, over the binary formats. JSON
+     * comes first among the produced types, so it wins whenever the preferred accepted type is a wildcard.
+     */
+    private static boolean negotiatesJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(acceptable);
+        } catch (IllegalArgumentException e) {
+            // Left to the content negotiation of Spring MVC, which rejects it
+            return false;
+        }
+        for (MediaType mediaType : acceptable) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)
+                    || mediaType.isCompatibleWith(MediaType.parseMediaType(JacksonConfig.APPLICATION_SMILE_VALUE))) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // gzip;q=0 refuses it
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 
     @Operation(
@@ -80,6 +199,10 @@ public class RecipeController {
                     responseCode = "400",
                     description = "HTTP Bad Request (Validation Errors)"
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "HTTP Conflict (A recipe with the given id already exists)"
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error",
@@ -91,10 +214,96 @@ public class RecipeController {
     @PostMapping
     public ResponseEntity<RecipeDto> createRecipe(@Valid @RequestBody RecipeDto recipeDto) {
         RecipeDto recipeCreated = recipeService.createRecipe(recipeDto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(recipeCreated);
+        HttpHeaders headers = new HttpHeaders();
+        RecipeETags.addValidators(headers, recipeCreated);
+        return ResponseEntity.status(HttpStatus.CREATED).headers(headers).body(recipeCreated);
     }
 
 
+    @Operation(
+            summary = "Batch Create Recipes REST API",
+            description = "REST API to create many Recipes with one bulk write. Every item gets its own status: 201 when created, "
+                    + "400 when invalid and 409 when its id already exists."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK (see the status of each item)"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Bad Request (Empty or too large batch)"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResultDto>> createRecipes(@RequestBody List<RecipeDto> recipeDtos) {
+        List<BatchItemResultDto> results = recipeService.createRecipes(recipeDtos);
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
+    @Operation(
+            summary = "Batch Fetch Recipes REST API",
+            description = "REST API to fetch many Recipes by id with one query. Every item gets its own status: 200 when found "
+                    + "and 404 when not found."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK (see the status of each item)"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Bad Request (Empty or too large batch)"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/batch/get")
+    public ResponseEntity<List<BatchItemResultDto>> getRecipesByIds(@RequestBody List<String> recipeIds) {
+        List<BatchItemResultDto> results = recipeService.getRecipesByIds(recipeIds);
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
+    @Operation(
+            summary = "Batch Delete Recipes REST API",
+            description = "REST API to delete many Recipes by id with one command. The command only reports how many of the "
+                    + "recipes it deleted, the others were not found."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK (see the number of recipes deleted)"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Bad Request (Empty or too large batch)"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/batch/delete")
+    public ResponseEntity<BatchDeleteResultDto> deleteRecipes(@RequestBody List<String> recipeIds) {
+        BatchDeleteResultDto result = recipeService.deleteRecipes(recipeIds);
+        return ResponseEntity.status(HttpStatus.OK).body(result);
+    }
+
     @Operation(
             summary = "Search Recipes REST API",
             description = "REST API to search different Recipes in the Recipe Harbor Application"
@@ -117,17 +326,94 @@ public class RecipeController {
             )
     })
     @PostMapping("/search")
-    public ResponseEntity<Page<RecipeDto>> searchRecipe(@Valid @RequestBody SearchCriteriaDto searchCriteriaDto,
-                                                        @RequestParam(defaultValue = "0") int page,
-                                                        @RequestParam(defaultValue = "10") int size) {
-        Page<RecipeDto> recipePage = recipeService.searchRecipe(searchCriteriaDto, page, size);
+    public ResponseEntity<RecipePageDto> searchRecipe(@Valid @RequestBody SearchCriteriaDto searchCriteriaDto,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "10") int size,
+                                                      @Parameter(description = "Continuation token for keyset pagination, "
+                                                              + "pass it empty to start and then the nextCursor of the previous response")
+                                                      @RequestParam(required = false) String cursor,
+                                                      @Parameter(description = "How the total is computed: exact (default), "
+                                                              + "none (no total, only whether a next page exists) or estimated (capped and cached)")
+                                                      @RequestParam(defaultValue = "exact") String count,
+                                                      @Parameter(description = "Comma separated recipe fields to return, eg: name,veg,servings (all by default)")
+                                                      @RequestParam(name = RecipeFieldsResponseBodyAdvice.FIELDS_PARAMETER, required = false) String fields) {
+        RecipeFields recipeFields = RecipeFields.parse(fields);
+        HttpHeaders headers = new HttpHeaders();
+        if (cursor != null) {
+            CursorSlice<RecipeDto> recipeSlice = recipeService.searchRecipeByCursor(searchCriteriaDto, cursor, size, recipeFields);
+            headers.add("X-Page-Size", String.valueOf(recipeSlice.getSize()));
+            if (recipeSlice.getNextCursor() != null) {
+                headers.add("X-Next-Cursor", recipeSlice.getNextCursor());
+            }
+            RecipeETags.addValidators(headers, recipeSlice, recipeFields);
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .headers(headers)
+                    .body(toRecipePage(recipeSlice));
+        }
+        CountMode countMode = CountMode.fromValue(count);
+        Slice<RecipeDto> recipePage = recipeService.searchRecipe(searchCriteriaDto, page, size, countMode, recipeFields);
+        headers.add("X-Page-Number", String.valueOf(recipePage.getNumber()));
+        headers.add("X-Page-Size", String.valueOf(recipePage.getSize()));
+        if (countMode == CountMode.ESTIMATED) {
+            headers.add("X-Total-Count-Estimated", "true");
+        }
+        RecipeETags.addValidators(headers, recipePage, recipeFields);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .headers(headers)
+                .body(toRecipePage(recipePage));
+    }
+
+    @Operation(
+            summary = "Pantry Search REST API",
+            description = "REST API to search the Recipes that can be cooked with the ingredients of a pantry, optionally allowing "
+                    + "a few missing ingredients. Recipes are ranked by their number of missing ingredients, newest first among equals."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Bad Request (Validation Errors)"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/search/pantry")
+    public ResponseEntity<RecipePageDto> searchPantry(@Valid @RequestBody PantrySearchDto pantrySearchDto,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "10") int size) {
+        Page<RecipeDto> recipePage = recipeService.searchPantry(pantrySearchDto, page, size);
         HttpHeaders headers = new HttpHeaders();
         headers.add("X-Page-Number", String.valueOf(recipePage.getNumber()));
         headers.add("X-Page-Size", String.valueOf(recipePage.getSize()));
+        RecipeETags.addValidators(headers, recipePage, RecipeFields.ALL);
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .headers(headers)
-                .body(recipePage);
+                .body(toRecipePage(recipePage));
+    }
+
+    /**
+     * Wraps search results in the response envelope: a page fetched by cursor has no page number, only a Page has a total.
+     */
+    private static RecipePageDto toRecipePage(Slice<RecipeDto> recipes) {
+        return RecipePageDto.builder()
+                .content(recipes.getContent())
+                .page(recipes instanceof CursorSlice ? null : recipes.getNumber())
+                .size(recipes.getSize())
+                .hasNext(recipes.hasNext())
+                .totalElements(recipes instanceof Page<RecipeDto> page ? page.getTotalElements() : null)
+                .nextCursor(recipes instanceof CursorSlice<RecipeDto> cursorSlice ? cursorSlice.getNextCursor() : null)
+                .build();
     }
 
     @Operation(
@@ -147,6 +433,10 @@ public class RecipeController {
                     responseCode = "404",
                     description = "HTTP Not Found (Recipe Not Found)"
             ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "HTTP Precondition Failed (Recipe modified since the If-Match version)"
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error",
@@ -157,9 +447,54 @@ public class RecipeController {
     })
     @PutMapping("/{recipeId}")
     public ResponseEntity<RecipeDto> updateRecipe(@PathVariable @NotNull(message = "Recipe ID cannot be null") String recipeId,
+                                                  @Parameter(description = "ETag of the recipe version being replaced, the update fails with 412 when the recipe changed since")
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                   @Valid @RequestBody RecipeDto recipeDto) {
-        RecipeDto recipeUpdated = recipeService.updateRecipe(recipeId, recipeDto);
-        return ResponseEntity.status(HttpStatus.OK).body(recipeUpdated);
+        RecipeDto recipeUpdated = recipeService.updateRecipe(recipeId, recipeDto, RecipeETags.expectedVersion(ifMatch));
+        HttpHeaders headers = new HttpHeaders();
+        RecipeETags.addValidators(headers, recipeUpdated);
+        return ResponseEntity.status(HttpStatus.OK).headers(headers).body(recipeUpdated);
+    }
+
+    @Operation(
+            summary = "Patch Recipe REST API",
+            description = "REST API to change some fields of a Recipe, fields left out of the request are kept. Ingredients and "
+                    + "instructions can be replaced or appended to with addIngredients and addInstructions."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Bad Request (Validation Errors or no field to update)"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Not Found (Recipe Not Found)"
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "HTTP Precondition Failed (Recipe modified since the If-Match version)"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PatchMapping("/{recipeId}")
+    public ResponseEntity<RecipeDto> patchRecipe(@PathVariable @NotNull(message = "Recipe ID cannot be null") String recipeId,
+                                                 @Parameter(description = "ETag of the recipe version being changed, the update fails with 412 when the recipe changed since")
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @Valid @RequestBody RecipePatchDto recipePatchDto) {
+        RecipeDto recipeUpdated = recipeService.patchRecipe(recipeId, recipePatchDto, RecipeETags.expectedVersion(ifMatch));
+        HttpHeaders headers = new HttpHeaders();
+        RecipeETags.addValidators(headers, recipeUpdated);
+        return ResponseEntity.status(HttpStatus.OK).headers(headers).body(recipeUpdated);
     }
 
     @Operation(
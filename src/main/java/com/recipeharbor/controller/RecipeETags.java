@@ -0,0 +1,132 @@
+package com.recipeharbor.controller;
+
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.exception.RecipeVersionConflictException;
+import com.recipeharbor.service.RecipeFields;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Validators of recipe responses for conditional requests: the entity tag of a recipe is its quoted version,
+ * {@code "3"}, and its Last-Modified date is the date of its last update. A response with only some of the recipe
+ * fields is another representation and gets another tag, the version followed by the fields: {@code "3-id,name"}.
+ * So is a gzipped response, its tag ends with the coding: {@code "3-gzip"}.
+ */
+final class RecipeETags {
+
+    private RecipeETags() {
+    }
+
+    static String of(Long version) {
+        return of(version, RecipeFields.ALL);
+    }
+
+    static String of(Long version, RecipeFields fields) {
+        // Recipes written before versioning are at version 0
+        String tag = String.valueOf(version == null ? 0 : version);
+        return "\"" + (fields.isAll() ? tag : tag + "-" + fields) + "\"";
+    }
+
+    /**
+     * @return the tag of the gzipped representation with the given tag
+     */
+    static String gzip(String eTag) {
+        return eTag.substring(0, eTag.length() - 1) + "-gzip\"";
+    }
+
+    /**
+     * Tells whether an {@code If-None-Match} header lists the gzipped representation with the given tag, so that a
+     * client holding the gzipped response is answered like one holding the identity response.
+     */
+    static boolean matchesGzip(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String gzipTag = gzip(eTag);
+        for (String tag : ifNoneMatch.split(",")) {
+            // If-None-Match compares weakly
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(gzipTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets the ETag and, when the recipe has a modification date, the Last-Modified of a single recipe response.
+     */
+    static void addValidators(HttpHeaders headers, RecipeDto recipeDto) {
+        addValidators(headers, recipeDto, RecipeFields.ALL);
+    }
+
+    static void addValidators(HttpHeaders headers, RecipeDto recipeDto, RecipeFields fields) {
+        addValidators(headers, recipeDto.getVersion(), recipeDto.getUpdatedAt(), fields);
+    }
+
+    static void addValidators(HttpHeaders headers, Long version, LocalDateTime updatedAt, RecipeFields fields) {
+        headers.setETag(of(version, fields));
+        if (updatedAt != null) {
+            headers.setLastModified(lastModified(updatedAt));
+        }
+    }
+
+    /**
+     * Sets the ETag of search results, a hash of the ids and versions listed, and their latest modification date.
+     */
+    static void addValidators(HttpHeaders headers, Slice<RecipeDto> results, RecipeFields fields) {
+        StringBuilder key = new StringBuilder(fields.toString()).append(';');
+        LocalDateTime latestUpdate = null;
+        for (RecipeDto recipeDto : results) {
+            key.append(recipeDto.getId()).append(':').append(recipeDto.getVersion()).append(',');
+            if (recipeDto.getUpdatedAt() != null && (latestUpdate == null || recipeDto.getUpdatedAt().isAfter(latestUpdate))) {
+                latestUpdate = recipeDto.getUpdatedAt();
+            }
+        }
+        key.append(results.hasNext());
+        if (results instanceof Page<RecipeDto> page) {
+            key.append(',').append(page.getTotalElements());
+        }
+        headers.setETag("\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"");
+        if (latestUpdate != null) {
+            headers.setLastModified(lastModified(latestUpdate));
+        }
+    }
+
+    /**
+     * @return the date as epoch milliseconds, -1 (no Last-Modified) when the recipe has no modification date
+     */
+    static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * @return the version an {@code If-Match} header requires, {@code null} when there is no header or it matches any
+     * version ({@code *})
+     * @throws RecipeVersionConflictException when the header can match no version, as a weak or foreign tag
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        // If-Match compares strongly, so a weak tag never matches
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // falls through to the conflict below
+            }
+        }
+        throw new RecipeVersionConflictException("If-Match " + ifMatch + " does not match any version of the recipe");
+    }
+}
@@ -0,0 +1,45 @@
+package com.recipeharbor.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.recipeharbor.config.JacksonConfig;
+import com.recipeharbor.service.RecipeFields;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Writes only the recipe properties selected with the {@code fields} request parameter, the counterpart of the
+ * projection the service reads the recipes with. The computed properties of a search (score, missing ingredients) are
+ * kept whenever they are present.
+ */
+@ControllerAdvice(assignableTypes = RecipeController.class)
+public class RecipeFieldsResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    static final String FIELDS_PARAMETER = "fields";
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        RecipeFields fields = RecipeFields.parse(servletRequest.getServletRequest().getParameter(FIELDS_PARAMETER));
+        if (fields.isAll()) {
+            return;
+        }
+        Set<String> properties = new HashSet<>(fields.names());
+        properties.add("score");
+        properties.add("missingIngredients");
+        bodyContainer.setFilters(new SimpleFilterProvider()
+                .addFilter(JacksonConfig.RECIPE_FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(properties)));
+    }
+}
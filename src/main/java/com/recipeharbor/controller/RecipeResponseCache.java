@@ -0,0 +1,112 @@
+package com.recipeharbor.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipeharbor.cache.BoundedCache;
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.service.RecipeStamp;
+import com.recipeharbor.service.event.RecipeChangedEvent;
+import com.recipeharbor.service.event.RecipesCreatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of the serialized JSON of whole recipes by id, in front of the recipe cache of the service, so that a hot
+ * {@code GET /api/recipe/{id}} writes bytes instead of running Jackson over the recipe and its lists. Responses above
+ * {@code gzip-min-size} bytes are also kept gzipped for clients accepting it.
+ * <p>
+ * The writes of this node drop the recipe through their {@link RecipeChangedEvent}, and so do the writes of other nodes
+ * while the change stream of the ingredient index runs. The bytes are moreover only served when their version and date
+ * still match the {@link RecipeStamp} the service reads from Mongo for the request, and are serialized again otherwise,
+ * so a response never shows a version older than the stored one, whichever node wrote it.
+ */
+@Component
+public class RecipeResponseCache {
+
+    private final BoundedCache<String, SerializedRecipe> responseCache;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int gzipMinSize;
+
+    public RecipeResponseCache(BoundedCache<String, SerializedRecipe> responseCache,
+                               ObjectMapper objectMapper,
+                               @Value("${recipeharbor.cache.responses.enabled:true}") boolean enabled,
+                               @Value("${recipeharbor.cache.responses.gzip-min-size:1024}") int gzipMinSize) {
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.gzipMinSize = gzipMinSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the serialized recipe, reading and serializing it on a miss or when the cached bytes are of another
+     * version than the current one.
+     */
+    public SerializedRecipe get(String recipeId, RecipeStamp current, Supplier<RecipeDto> recipe) {
+        SerializedRecipe cached = responseCache.getIfPresent(recipeId);
+        if (cached != null) {
+            if (cached.matches(current)) {
+                return cached;
+            }
+            responseCache.invalidate(recipeId);
+        }
+        return responseCache.get(recipeId, id -> serialize(recipe.get()));
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        responseCache.invalidate(event.getRecipeId());
+    }
+
+    @EventListener
+    public void onRecipesCreated(RecipesCreatedEvent event) {
+        event.getRecipes().forEach(recipe -> responseCache.invalidate(recipe.getId()));
+    }
+
+    SerializedRecipe serialize(RecipeDto recipeDto) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(recipeDto);
+            byte[] gzip = gzipMinSize > 0 && json.length >= gzipMinSize ? gzip(json) : null;
+            return new SerializedRecipe(recipeDto.getVersion(), recipeDto.getUpdatedAt(), json, gzip);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Recipe " + recipeDto.getId() + " could not be serialized", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * A recipe serialized as JSON, with its validators.
+     *
+     * @param gzip the JSON gzipped, {@code null} when it is too small to be worth compressing
+     */
+    public record SerializedRecipe(Long version, LocalDateTime updatedAt, byte[] json, byte[] gzip) {
+
+        boolean matches(RecipeStamp recipeStamp) {
+            // Dates read back from Mongo have lost the sub-millisecond part of the dates the writes cached
+            return Objects.equals(version, recipeStamp.version())
+                    && RecipeETags.lastModified(updatedAt) == RecipeETags.lastModified(recipeStamp.updatedAt());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.recipeharbor.controller;
+
+import com.recipeharbor.dto.ErrorResponseDto;
+import com.recipeharbor.dto.ImportReportDto;
+import com.recipeharbor.service.IRecipeTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ *  REST APIs Controller for the bulk export and import of recipes in Recipe Harbor Application
+ */
+@Tag(
+        name = "REST APIs for bulk transfer of Recipes in Recipe Harbor Application",
+        description = "REST API's in RecipeHarbor to export all Recipes and import Recipes in bulk as newline-delimited JSON."
+)
+@RestController
+@RequestMapping(path = "/api/recipe")
+public class RecipeTransferController {
+
+    private final IRecipeTransferService recipeTransferService;
+
+    public RecipeTransferController(IRecipeTransferService recipeTransferService) {
+        this.recipeTransferService = recipeTransferService;
+    }
+
+    @Operation(
+            summary = "Export Recipes REST API",
+            description = "REST API to stream every Recipe as newline-delimited JSON, one recipe per line"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRecipes() {
+        StreamingResponseBody body = recipeTransferService::exportRecipes;
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"recipes.ndjson\"")
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Import Recipes REST API",
+            description = "REST API to import Recipes from newline-delimited JSON, one recipe per line. Invalid lines are "
+                    + "reported with their line number and do not stop the import of the others."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportReportDto> importRecipes(InputStream requestBody) throws IOException {
+        ImportReportDto importReport = recipeTransferService.importRecipes(requestBody);
+        return ResponseEntity.status(HttpStatus.OK).body(importReport);
+    }
+}
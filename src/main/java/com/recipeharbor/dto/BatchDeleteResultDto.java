@@ -0,0 +1,23 @@
+package com.recipeharbor.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "BatchDeleteResult",
+        description = "Schema to hold the outcome of a batch delete. The delete command only reports how many recipes "
+                + "it removed, not which ones"
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchDeleteResultDto {
+
+    @Schema(description = "Number of distinct recipe ids in the request", example = "3")
+    private int requested;
+
+    @Schema(description = "Number of recipes deleted, the others were not found", example = "2")
+    private long deleted;
+}
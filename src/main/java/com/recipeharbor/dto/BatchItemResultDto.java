@@ -0,0 +1,35 @@
+package com.recipeharbor.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "BatchItemResult",
+        description = "Schema to hold the outcome of one item of a batch request"
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDto {
+
+    @Schema(description = "Position of the item in the request", example = "0")
+    private int index;
+
+    @Schema(description = "Recipe ID of the item", example = "65e841e36ad9c545baf4c9ef")
+    private String id;
+
+    @Schema(description = "HTTP status the item would have had as a single request", example = "201")
+    private int status;
+
+    @Schema(description = "The recipe created or fetched, absent for deletions and failures")
+    private RecipeDto recipe;
+
+    @Schema(description = "Why the item failed, absent on success", example = "name: Name of the recipe is required")
+    private String error;
+}
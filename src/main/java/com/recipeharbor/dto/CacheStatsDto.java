@@ -0,0 +1,43 @@
+package com.recipeharbor.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "CacheStats",
+        description = "Schema to hold the statistics of an in-process cache"
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDto {
+
+    @Schema(description = "Name of the cache", example = "recipes")
+    private String name;
+
+    @Schema(description = "Number of entries currently cached", example = "1200")
+    private long size;
+
+    @Schema(description = "Maximum number of entries before eviction", example = "10000")
+    private long maximumSize;
+
+    @Schema(description = "Number of reads served from the cache", example = "98000")
+    private long hits;
+
+    @Schema(description = "Number of reads that had to load the value", example = "2000")
+    private long misses;
+
+    @Schema(description = "Share of the reads served from the cache", example = "0.98")
+    private double hitRatio;
+
+    @Schema(description = "Number of values loaded on a miss", example = "2000")
+    private long loads;
+
+    @Schema(description = "Number of values reloaded in the background", example = "150")
+    private long refreshes;
+
+    @Schema(description = "Number of entries evicted by size or expiry", example = "30")
+    private long evictions;
+}
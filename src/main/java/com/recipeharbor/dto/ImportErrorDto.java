@@ -0,0 +1,22 @@
+package com.recipeharbor.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "ImportError",
+        description = "Schema to hold the reason a line of an import was rejected"
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDto {
+
+    @Schema(description = "Line number in the imported body, starting at 1", example = "42")
+    private long line;
+
+    @Schema(description = "Why the line was rejected", example = "name: Name of the recipe is required")
+    private String message;
+}
@@ -0,0 +1,33 @@
+package com.recipeharbor.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(
+        name = "ImportReport",
+        description = "Schema to hold the outcome of a recipe import"
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDto {
+
+    @Schema(description = "Number of non-blank lines read", example = "2000000")
+    private long lines;
+
+    @Schema(description = "Number of recipes written", example = "1999998")
+    private long imported;
+
+    @Schema(description = "Number of lines rejected", example = "2")
+    private long failed;
+
+    @Schema(description = "Rejected lines with their reason, the first ones only when there are too many")
+    private List<ImportErrorDto> errors;
+
+    @Schema(description = "Whether more lines were rejected than listed in errors", example = "false")
+    private boolean errorsTruncated;
+}
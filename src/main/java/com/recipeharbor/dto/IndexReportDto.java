@@ -0,0 +1,24 @@
+package com.recipeharbor.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(
+        name = "IndexReport",
+        description = "Schema to hold the managed indexes and the query plans of the search shapes"
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexReportDto {
+
+    @Schema(description = "Build status of the managed indexes")
+    private List<IndexStatusDto> indexes;
+
+    @Schema(description = "Query plans of the search shapes")
+    private List<SearchShapePlanDto> shapes;
+}
@@ -0,0 +1,28 @@
+package com.recipeharbor.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "IndexStatus",
+        description = "Schema to hold the build status of a managed index"
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexStatusDto {
+
+    @Schema(description = "Name of the index", example = "vegetarian_servings_createdAt_id")
+    private String name;
+
+    @Schema(description = "Keys of the index", example = "{\"vegetarian\": 1, \"servings\": 1, \"createdAt\": -1, \"_id\": -1}")
+    private String keys;
+
+    @Schema(description = "Build state of the index", example = "PENDING, BUILDING, READY or FAILED")
+    private String state;
+
+    @Schema(description = "Why the index could not be built, only set when the build failed")
+    private String error;
+}
@@ -0,0 +1,31 @@
+package com.recipeharbor.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PantrySearchDto {
+    @Schema(
+            description = "Ingredients available in the pantry", example = "Onions, Tomatoes, Rice"
+    )
+    @NotEmpty(message = "At least one pantry ingredient is required")
+    private List<String> ingredients;
+
+    @Schema(
+            description = "Number of recipe ingredients that may be missing from the pantry", example = "1"
+    )
+    @Min(value = 0, message = "Missing ingredients cannot be negative")
+    @Max(value = 10, message = "At most 10 missing ingredients can be allowed")
+    private Integer maxMissing;
+}
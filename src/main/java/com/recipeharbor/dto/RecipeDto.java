@@ -1,5 +1,7 @@
 package com.recipeharbor.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.recipeharbor.entity.Steps;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
@@ -8,6 +10,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Schema(
@@ -59,4 +62,36 @@ public class RecipeDto {
     @Size(min = 1, message = "At least one instruction is required")
     private List<Steps> instructions;
 
+    @Schema(
+            description = "Relevance score of the recipe for a full-text search, only present on text search results",
+            example = "1.25", accessMode = Schema.AccessMode.READ_ONLY
+    )
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Float score;
+
+    @Schema(
+            description = "Version of the recipe, incremented on every update and sent back as the ETag", example = "3",
+            accessMode = Schema.AccessMode.READ_ONLY
+    )
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @Schema(
+            description = "Date of the last change of the recipe, sent back as the Last-Modified header", example = "2024-03-06T12:30:00",
+            accessMode = Schema.AccessMode.READ_ONLY
+    )
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime updatedAt;
+
+    @Schema(
+            description = "Ingredients of the recipe that are not in the pantry, only present on pantry search results",
+            example = "Basil", accessMode = Schema.AccessMode.READ_ONLY
+    )
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<String> missingIngredients;
+
 }
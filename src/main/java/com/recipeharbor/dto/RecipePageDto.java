@@ -0,0 +1,43 @@
+package com.recipeharbor.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of the search APIs. Written by {@link RecipePageDtoSerializer}, the properties left out below are omitted.
+ */
+@Schema(
+        name = "RecipePage",
+        description = "Schema to hold a page of search results"
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonSerialize(using = RecipePageDtoSerializer.class)
+public class RecipePageDto {
+
+    @Schema(description = "Recipes of the page")
+    private List<RecipeDto> content;
+
+    @Schema(description = "Zero based page number, left out for a page fetched by cursor", example = "0")
+    private Integer page;
+
+    @Schema(description = "Requested page size", example = "10")
+    private int size;
+
+    @Schema(description = "Whether a next page exists", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Number of matching recipes, left out when not counted (count=none or a cursor)", example = "42")
+    private Long totalElements;
+
+    @Schema(description = "Token of the next page of a keyset pagination, left out on the last page")
+    private String nextCursor;
+}
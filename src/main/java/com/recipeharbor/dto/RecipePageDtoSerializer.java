@@ -0,0 +1,53 @@
+package com.recipeharbor.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes a {@link RecipePageDto} field by field: the recipes go through the RecipeDto serializer resolved once per
+ * page, so they keep the fields filter of the response, and the optional properties are skipped instead of written as
+ * null.
+ */
+public class RecipePageDtoSerializer extends StdSerializer<RecipePageDto> {
+
+    public RecipePageDtoSerializer() {
+        super(RecipePageDto.class);
+    }
+
+    @Override
+    public void serialize(RecipePageDto recipePage, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(recipePage);
+
+        gen.writeFieldName("content");
+        List<RecipeDto> content = recipePage.getContent() == null ? List.of() : recipePage.getContent();
+        gen.writeStartArray(content, content.size());
+        JsonSerializer<Object> recipeSerializer = provider.findValueSerializer(RecipeDto.class);
+        for (RecipeDto recipeDto : content) {
+            if (recipeDto == null) {
+                gen.writeNull();
+            } else {
+                recipeSerializer.serialize(recipeDto, gen, provider);
+            }
+        }
+        gen.writeEndArray();
+
+        if (recipePage.getPage() != null) {
+            gen.writeNumberField("page", recipePage.getPage());
+        }
+        gen.writeNumberField("size", recipePage.getSize());
+        gen.writeBooleanField("hasNext", recipePage.isHasNext());
+        if (recipePage.getTotalElements() != null) {
+            gen.writeNumberField("totalElements", recipePage.getTotalElements());
+        }
+        if (recipePage.getNextCursor() != null) {
+            gen.writeStringField("nextCursor", recipePage.getNextCursor());
+        }
+
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,67 @@
+package com.recipeharbor.dto;
+
+import com.recipeharbor.entity.Steps;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(
+        name = "Recipe Patch DTO",
+        description = "Schema to hold the Recipe fields to change, fields left out are kept as they are"
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipePatchDto {
+
+    @Schema(
+            description = "Name of the Recipe", example = "Pesto Pasta"
+    )
+    @Size(min = 5, max = 30, message = "The length name should be between 5 and 30")
+    private String name;
+
+    @Schema(
+            description = "Type of Recipe (Vegetarian or Non Vegetarian)", example = "true"
+    )
+    private Boolean veg;
+
+    @Schema(
+            description = "Number of persons served by this recipe", example = "3"
+    )
+    @Min(value = 1, message = "Number of servings must be a positive integer")
+    @Max(value = 20, message = "Number of servings cannot exceed 20")
+    private Integer servings;
+
+    @Schema(
+            description = "Ingredients replacing those of the dish", example = "{\"name\": \"Potatoes\", \"quantity\": 1, \"unit\": \"unit\"}"
+    )
+    @Size(min = 1, message = "At least one ingredient is required")
+    private List<Ingredient> ingredients;
+
+    @Schema(
+            description = "Ingredients appended to those of the dish", example = "{\"name\": \"Basil\", \"quantity\": 5, \"unit\": \"leaves\"}"
+    )
+    @Size(min = 1, message = "At least one ingredient to add is required")
+    private List<Ingredient> addIngredients;
+
+    @Schema(
+            description = "Instructions replacing those of the recipe"
+    )
+    @Size(min = 1, message = "At least one instruction is required")
+    private List<Steps> instructions;
+
+    @Schema(
+            description = "Instructions appended to those of the recipe"
+    )
+    @Size(min = 1, message = "At least one instruction to add is required")
+    private List<Steps> addInstructions;
+
+}
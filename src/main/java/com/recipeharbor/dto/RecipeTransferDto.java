@@ -0,0 +1,37 @@
+package com.recipeharbor.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Schema(
+        name = "Recipe Transfer",
+        description = "Schema to hold a line of an export or import: the recipe with its dates and version"
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeTransferDto {
+
+    @JsonUnwrapped
+    private RecipeDto recipe;
+
+    @Schema(description = "When the recipe was first created, the time of the import when absent")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime createdAt;
+
+    // Written out by the unwrapped recipe, read-only there, and read back here
+    @Schema(description = "When the recipe was last changed, its creation time when absent")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private LocalDateTime updatedAt;
+
+    @Schema(description = "Version of the recipe, 0 when absent")
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private Long version;
+}
@@ -39,4 +39,14 @@ public class SearchCriteriaDto {
             description = "Instructions for the recipe", example = "Boil"
     )
     private String instructionsText;
+
+    @Schema(
+            description = "Full-text query over the recipe name and instructions, served by the text index", example = "pesto pasta"
+    )
+    private String text;
+
+    @Schema(
+            description = "Sort the results by text relevance instead of creation date (only applies when text is set)", example = "true"
+    )
+    private Boolean sortByRelevance;
 }
@@ -0,0 +1,33 @@
+package com.recipeharbor.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(
+        name = "SearchShapePlan",
+        description = "Schema to hold the winning query plan of a search shape"
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchShapePlanDto {
+
+    @Schema(description = "Search criteria fields set in this shape", example = "[\"vegetarian\", \"servings\"]")
+    private List<String> fields;
+
+    @Schema(description = "Stages of the winning plan, outermost first", example = "[\"LIMIT\", \"FETCH\", \"IXSCAN\"]")
+    private List<String> stages;
+
+    @Schema(description = "Indexes used by the winning plan", example = "[\"vegetarian_servings_createdAt_id\"]")
+    private List<String> indexes;
+
+    @Schema(description = "Whether the plan scans the whole collection")
+    private boolean collectionScan;
+
+    @Schema(description = "Whether the plan sorts the matches in memory")
+    private boolean inMemorySort;
+}
@@ -0,0 +1,54 @@
+package com.recipeharbor.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(
+        name = "SlowSearch",
+        description = "Schema to hold a search that took longer than the slow search threshold, with its query plan"
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowSearchDto {
+
+    @Schema(description = "When the search ran")
+    private LocalDateTime timestamp;
+
+    @Schema(description = "Search criteria fields set in the search", example = "[\"vegetarian\", \"servings\"]")
+    private List<String> fields;
+
+    @Schema(description = "Time taken by the search, without the explain", example = "850")
+    private long durationMillis;
+
+    @Schema(description = "Mongo filter of the search", example = "{\"vegetarian\": true, \"servings\": 4}")
+    private String query;
+
+    @Schema(description = "Stages of the winning plan, outermost first", example = "[\"LIMIT\", \"FETCH\", \"IXSCAN\"]")
+    private List<String> stages;
+
+    @Schema(description = "Indexes used by the winning plan", example = "[\"vegetarian_servings_createdAt_id\"]")
+    private List<String> indexes;
+
+    @Schema(description = "Whether the plan scans the whole collection")
+    private boolean collectionScan;
+
+    @Schema(description = "Whether the plan sorts the matches in memory")
+    private boolean inMemorySort;
+
+    @Schema(description = "Index keys examined by the plan", example = "11")
+    private long keysExamined;
+
+    @Schema(description = "Documents examined by the plan", example = "11")
+    private long docsExamined;
+
+    @Schema(description = "Documents returned by the plan", example = "11")
+    private long returned;
+}
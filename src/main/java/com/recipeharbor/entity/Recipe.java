@@ -4,8 +4,8 @@ import com.recipeharbor.dto.Ingredient;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Id;
 import lombok.*;
-import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.util.List;
 
@@ -20,15 +20,14 @@ public class Recipe extends BaseEntity {
 
     @Id
     private String id;
-    @Indexed
     private String name;
-    @Indexed
     private boolean vegetarian;
-    @Indexed
     private Integer servings;
     @ElementCollection
     private List<Ingredient> ingredients;
     @ElementCollection
     private List<Steps> instructions;
+    @TextScore
+    private Float score;
 
 }
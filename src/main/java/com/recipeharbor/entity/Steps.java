@@ -4,7 +4,6 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.data.mongodb.core.index.TextIndexed;
 
 @Data
 @Builder
@@ -14,7 +13,6 @@ public class Steps {
 
     private Integer step_number;
 
-    @TextIndexed
     private String description;
 
 }
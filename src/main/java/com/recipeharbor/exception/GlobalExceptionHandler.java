@@ -62,4 +62,52 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(validationErrors, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(InvalidSearchRequestException.class)
+    public ResponseEntity<Object> handleInvalidSearchRequestException(InvalidSearchRequestException exception,
+                                                                      WebRequest webRequest) {
+        Map<String, String> validationErrors = new HashMap<>();
+        validationErrors.put("ErrorMessage", exception.getMessage());
+        return new ResponseEntity<>(validationErrors, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidBatchRequestException.class)
+    public ResponseEntity<Object> handleInvalidBatchRequestException(InvalidBatchRequestException exception,
+                                                                     WebRequest webRequest) {
+        Map<String, String> validationErrors = new HashMap<>();
+        validationErrors.put("ErrorMessage", exception.getMessage());
+        return new ResponseEntity<>(validationErrors, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidPatchRequestException.class)
+    public ResponseEntity<Object> handleInvalidPatchRequestException(InvalidPatchRequestException exception,
+                                                                     WebRequest webRequest) {
+        Map<String, String> validationErrors = new HashMap<>();
+        validationErrors.put("ErrorMessage", exception.getMessage());
+        return new ResponseEntity<>(validationErrors, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(RecipeVersionConflictException.class)
+    public ResponseEntity<Object> handleRecipeVersionConflictException(RecipeVersionConflictException exception,
+                                                                       WebRequest webRequest) {
+        Map<String, String> validationErrors = new HashMap<>();
+        validationErrors.put("ErrorMessage", exception.getMessage());
+        return new ResponseEntity<>(validationErrors, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(RecipeAlreadyExistsException.class)
+    public ResponseEntity<Object> handleRecipeAlreadyExistsException(RecipeAlreadyExistsException exception,
+                                                                     WebRequest webRequest) {
+        Map<String, String> validationErrors = new HashMap<>();
+        validationErrors.put("ErrorMessage", exception.getMessage());
+        return new ResponseEntity<>(validationErrors, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(InvalidFieldsRequestException.class)
+    public ResponseEntity<Object> handleInvalidFieldsRequestException(InvalidFieldsRequestException exception,
+                                                                      WebRequest webRequest) {
+        Map<String, String> validationErrors = new HashMap<>();
+        validationErrors.put("ErrorMessage", exception.getMessage());
+        return new ResponseEntity<>(validationErrors, HttpStatus.BAD_REQUEST);
+    }
+
 }
@@ -0,0 +1,11 @@
+package com.recipeharbor.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class RecipeAlreadyExistsException extends RuntimeException {
+    public RecipeAlreadyExistsException(String s) {
+        super(s);
+    }
+}
@@ -0,0 +1,11 @@
+package com.recipeharbor.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class RecipeVersionConflictException extends RuntimeException {
+    public RecipeVersionConflictException(String s) {
+        super(s);
+    }
+}
@@ -0,0 +1,101 @@
+package com.recipeharbor.index;
+
+import com.recipeharbor.dto.IndexStatusDto;
+import com.recipeharbor.entity.Recipe;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the indexes declared in {@link RecipeIndexes}, in the background once the application is ready (see
+ * {@link com.recipeharbor.startup.StartupTasks}). Creating an index that already exists with the same definition is a
+ * no-op on the server, so every node can run this safely. The outcome of each build is kept for the admin index
+ * report.
+ */
+@Component
+@Slf4j
+public class RecipeIndexManager {
+
+    public enum State { PENDING, BUILDING, READY, FAILED }
+
+    private final MongoTemplate mongoTemplate;
+    private final List<IndexDefinition> indexes = RecipeIndexes.all();
+    private final Map<String, IndexStatusDto> statuses = new ConcurrentHashMap<>();
+
+    public RecipeIndexManager(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        indexes.forEach(index -> statuses.put(nameOf(index), status(index, State.PENDING, null)));
+    }
+
+    public void ensureIndexes() {
+        IndexOperations indexOperations = mongoTemplate.indexOps(Recipe.class);
+        for (IndexDefinition index : indexes) {
+            String name = nameOf(index);
+            statuses.put(name, status(index, State.BUILDING, null));
+            try {
+                long start = System.nanoTime();
+                if (index instanceof TextIndexDefinition) {
+                    dropOtherTextIndexes(indexOperations, name);
+                }
+                indexOperations.ensureIndex(index);
+                statuses.put(name, status(index, State.READY, null));
+                log.info("Index {} ready in {} ms", name, (System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException e) {
+                statuses.put(name, status(index, State.FAILED, e.getMessage()));
+                log.error("Index {} could not be created", name, e);
+            }
+        }
+        dropObsoleteIndexes(indexOperations);
+    }
+
+    /**
+     * Dropped once the managed indexes are built, so that the searches are never left without an index.
+     */
+    private void dropObsoleteIndexes(IndexOperations indexOperations) {
+        try {
+            for (IndexInfo indexInfo : indexOperations.getIndexInfo()) {
+                if (RecipeIndexes.OBSOLETE.contains(indexInfo.getName())) {
+                    log.info("Dropping obsolete index {}", indexInfo.getName());
+                    indexOperations.dropIndex(indexInfo.getName());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Obsolete indexes could not be dropped", e);
+        }
+    }
+
+    /**
+     * A collection can only have one text index, so a text index left behind by an older definition (e.g. the
+     * one derived from the entity annotations) would make the managed one fail to build.
+     */
+    private void dropOtherTextIndexes(IndexOperations indexOperations, String textIndexName) {
+        for (IndexInfo indexInfo : indexOperations.getIndexInfo()) {
+            boolean isTextIndex = indexInfo.getIndexFields().stream().anyMatch(IndexField::isText);
+            if (isTextIndex && !indexInfo.getName().equals(textIndexName)) {
+                log.warn("Dropping text index {} in favour of {}", indexInfo.getName(), textIndexName);
+                indexOperations.dropIndex(indexInfo.getName());
+            }
+        }
+    }
+
+    public List<IndexStatusDto> getIndexStatuses() {
+        return indexes.stream().map(index -> statuses.get(nameOf(index))).toList();
+    }
+
+    private static IndexStatusDto status(IndexDefinition index, State state, String error) {
+        return new IndexStatusDto(nameOf(index), index.getIndexKeys().toJson(), state.name(), error);
+    }
+
+    private static String nameOf(IndexDefinition index) {
+        return index.getIndexOptions().getString("name");
+    }
+}
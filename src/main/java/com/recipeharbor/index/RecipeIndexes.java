@@ -0,0 +1,49 @@
+package com.recipeharbor.index;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+
+import java.util.List;
+
+/**
+ * The indexes of the {@code recipes} collection, declared after the query shapes the search API generates.
+ * <p>
+ * Every search sorts by {@code createdAt} descending with {@code _id} as tie-breaker, so each compound index
+ * puts its equality fields first and ends with that sort order; the plan can then walk the index in order
+ * and stop after one page instead of sorting all the matches in memory.
+ */
+public final class RecipeIndexes {
+
+    /**
+     * Single-field indexes the entity annotations used to create (named after their field), made redundant by the
+     * compound indexes: they are dropped so that writes stop maintaining them.
+     */
+    public static final List<String> OBSOLETE = List.of("name", "vegetarian", "servings");
+
+    private RecipeIndexes() {
+    }
+
+    public static List<IndexDefinition> all() {
+        return List.of(
+                // Unselective shapes (exclude ingredients, instructions text only): ordered scan that stops after a page
+                sorted(new Index().named("createdAt_id")),
+                sorted(new Index().named("vegetarian_createdAt_id").on("vegetarian", Sort.Direction.ASC)),
+                sorted(new Index().named("servings_createdAt_id").on("servings", Sort.Direction.ASC)),
+                sorted(new Index().named("vegetarian_servings_createdAt_id")
+                        .on("vegetarian", Sort.Direction.ASC)
+                        .on("servings", Sort.Direction.ASC)),
+                sorted(new Index().named("ingredientsName_createdAt_id").on("ingredients.name", Sort.Direction.ASC)),
+                // A collection has at most one text index, it backs the full-text search over name and instructions
+                TextIndexDefinition.builder()
+                        .named("recipe_text")
+                        .onField("name", 3F)
+                        .onField("instructions.description")
+                        .build());
+    }
+
+    private static Index sorted(Index index) {
+        return index.on("createdAt", Sort.Direction.DESC).on("_id", Sort.Direction.DESC);
+    }
+}
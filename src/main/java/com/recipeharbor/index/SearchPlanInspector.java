@@ -0,0 +1,164 @@
+package com.recipeharbor.index;
+
+import com.recipeharbor.dto.SearchShapePlanDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.service.search.RecipeSearchQueryBuilder;
+import com.recipeharbor.service.search.SearchShape;
+import org.bson.Document;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Explains the first page of every search shape against the live collection and reports the shapes whose
+ * winning plan still scans the collection or sorts in memory.
+ */
+@Component
+public class SearchPlanInspector {
+
+    private static final int SAMPLE_PAGE_SIZE = 10;
+
+    private final MongoTemplate mongoTemplate;
+    private final RecipeSearchQueryBuilder searchQueryBuilder;
+    private final QueryMapper queryMapper;
+    private final MongoPersistentEntity<?> recipeEntity;
+
+    public SearchPlanInspector(MongoTemplate mongoTemplate, RecipeSearchQueryBuilder searchQueryBuilder) {
+        this.mongoTemplate = mongoTemplate;
+        this.searchQueryBuilder = searchQueryBuilder;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        this.recipeEntity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Recipe.class);
+    }
+
+    public List<SearchShapePlanDto> inspectAll() {
+        return SearchShape.all().stream().map(this::inspect).toList();
+    }
+
+    public SearchShapePlanDto inspect(SearchShape shape) {
+        Query query = searchQueryBuilder.build(shape.sampleCriteria(), null)
+                .with(PageRequest.of(0, SAMPLE_PAGE_SIZE, RecipeSearchQueryBuilder.SEARCH_ORDER));
+        Document winningPlan = explain(query);
+
+        List<String> stages = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        collectStages(winningPlan, stages, indexes);
+        return new SearchShapePlanDto(shape.getFields(), stages, indexes,
+                stages.contains("COLLSCAN"), stages.contains("SORT"));
+    }
+
+    /**
+     * @return the winning plan of a {@code find} for the query, without executing it
+     */
+    public Document explain(Query query) {
+        Document explain = runExplain(query, "queryPlanner");
+        return winningPlan(explain);
+    }
+
+    /**
+     * Executes the query under explain: the winning plan together with the keys and documents it examined for the
+     * documents it returned.
+     */
+    public ExplainedExecution explainExecution(Query query) {
+        Document explain = runExplain(query, "executionStats");
+        List<String> stages = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        collectStages(winningPlan(explain), stages, indexes);
+        Document executionStats = explain.get("executionStats", Document.class);
+        return new ExplainedExecution(stages, indexes,
+                executionStats.get("totalKeysExamined", Number.class).longValue(),
+                executionStats.get("totalDocsExamined", Number.class).longValue(),
+                executionStats.get("nReturned", Number.class).longValue());
+    }
+
+    /**
+     * Executes an aggregation over the recipes under explain, as {@link #explainExecution(Query)} does for a find. The
+     * plan is the one of the query the server runs for the leading {@code $match}, followed by the names of the stages
+     * it runs on the matched documents (e.g. {@code $facet}, whose sort is always in memory). The documents returned
+     * are the {@code limit} matches after {@code skip}, the page a {@code $facet} hands back.
+     */
+    public ExplainedExecution explainAggregation(List<Document> pipeline, long skip, int limit) {
+        Document aggregate = new Document("aggregate", mongoTemplate.getCollectionName(Recipe.class))
+                .append("pipeline", pipeline)
+                .append("cursor", new Document());
+        Document explain = mongoTemplate.getDb()
+                .runCommand(new Document("explain", aggregate).append("verbosity", "executionStats"));
+
+        // The stages the server runs on the matches follow a $cursor stage holding the explain of the query,
+        // a pipeline pushed down entirely into the query is explained like a find
+        Document queryExplain = explain;
+        List<String> laterStages = new ArrayList<>();
+        if (explain.get("stages") instanceof List<?> explainStages && !explainStages.isEmpty()
+                && explainStages.get(0) instanceof Document first && first.containsKey("$cursor")) {
+            queryExplain = first.get("$cursor", Document.class);
+            explainStages.stream().skip(1)
+                    .filter(Document.class::isInstance)
+                    .forEach(stage -> laterStages.add(((Document) stage).keySet().iterator().next()));
+        }
+
+        List<String> stages = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        collectStages(winningPlan(queryExplain), stages, indexes);
+        stages.addAll(laterStages);
+        Document executionStats = queryExplain.get("executionStats", Document.class);
+        long matched = executionStats.get("nReturned", Number.class).longValue();
+        return new ExplainedExecution(stages, indexes,
+                executionStats.get("totalKeysExamined", Number.class).longValue(),
+                executionStats.get("totalDocsExamined", Number.class).longValue(),
+                Math.max(0, Math.min(limit, matched - skip)));
+    }
+
+    private Document runExplain(Query query, String verbosity) {
+        Document find = new Document("find", mongoTemplate.getCollectionName(Recipe.class))
+                .append("filter", queryMapper.getMappedObject(query.getQueryObject(), recipeEntity))
+                .append("sort", queryMapper.getMappedSort(query.getSortObject(), recipeEntity))
+                .append("projection", queryMapper.getMappedFields(query.getFieldsObject(), recipeEntity))
+                .append("skip", query.getSkip())
+                .append("limit", query.getLimit());
+        return mongoTemplate.getDb().runCommand(new Document("explain", find).append("verbosity", verbosity));
+    }
+
+    private static Document winningPlan(Document explain) {
+        Document queryPlanner = explain.get("queryPlanner", Document.class);
+        Document winningPlan = queryPlanner.get("winningPlan", Document.class);
+        // Servers running the slot based engine nest the classic plan tree under queryPlan
+        return winningPlan.containsKey("queryPlan") ? winningPlan.get("queryPlan", Document.class) : winningPlan;
+    }
+
+    /**
+     * Walks a plan tree (stages nest through inputStage, inputStages and, below $or, through arrays).
+     */
+    private static void collectStages(Object node, List<String> stages, List<String> indexes) {
+        if (node instanceof Document document) {
+            if (document.containsKey("stage")) {
+                stages.add(document.getString("stage"));
+            }
+            if (document.get("indexName") instanceof String indexName) {
+                indexes.add(indexName);
+            }
+            document.values().forEach(value -> collectStages(value, stages, indexes));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages, indexes));
+        }
+    }
+
+    /**
+     * Outcome of {@link #explainExecution(Query)} and {@link #explainAggregation(List, long, int)}.
+     */
+    public record ExplainedExecution(List<String> stages, List<String> indexes, long keysExamined, long docsExamined,
+                                     long returned) {
+
+        public boolean isCollectionScan() {
+            return stages.contains("COLLSCAN");
+        }
+
+        public boolean isInMemorySort() {
+            return stages.contains("SORT");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.recipeharbor.mapper;
+
+import com.recipeharbor.dto.Ingredient;
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.entity.Steps;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.codecs.Decoder;
+import org.bson.codecs.DecoderContext;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Decodes a recipe document straight into a RecipeDto as the driver reads it, skipping the intermediate
+ * {@code Document}, the mapping to the Recipe entity and the RecipeMapper. It reads the fields the way Spring Data
+ * writes them and ignores the others ({@code _class}, {@code createdAt}). A decoder only, recipes are written through
+ * the Recipe entity.
+ */
+public class RecipeDtoCodec implements Decoder<RecipeDto> {
+
+    @Override
+    public RecipeDto decode(BsonReader reader, DecoderContext decoderContext) {
+        RecipeDto recipeDto = new RecipeDto();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id" -> recipeDto.setId(readId(reader));
+                case "name" -> recipeDto.setName(readString(reader));
+                case "vegetarian" -> recipeDto.setVeg(readBoolean(reader));
+                case "servings" -> recipeDto.setServings(readInteger(reader));
+                case "ingredients" -> recipeDto.setIngredients(readList(reader, RecipeDtoCodec::readIngredient));
+                case "instructions" -> recipeDto.setInstructions(readList(reader, RecipeDtoCodec::readStep));
+                case "score" -> recipeDto.setScore(readFloat(reader));
+                case "version" -> recipeDto.setVersion(readLong(reader));
+                case "updatedAt" -> recipeDto.setUpdatedAt(readDateTime(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return recipeDto;
+    }
+
+    private static Ingredient readIngredient(BsonReader reader) {
+        Ingredient ingredient = new Ingredient();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "name" -> ingredient.setName(readString(reader));
+                case "quantity" -> ingredient.setQuantity(readInteger(reader));
+                case "unit" -> ingredient.setUnit(readString(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return ingredient;
+    }
+
+    private static Steps readStep(BsonReader reader) {
+        Steps step = new Steps();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "step_number" -> step.setStep_number(readInteger(reader));
+                case "description" -> step.setDescription(readString(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return step;
+    }
+
+    private static <T> List<T> readList(BsonReader reader, Function<BsonReader, T> elementReader) {
+        if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+            reader.skipValue();
+            return null;
+        }
+        List<T> elements = new ArrayList<>();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (reader.getCurrentBsonType() == BsonType.DOCUMENT) {
+                elements.add(elementReader.apply(reader));
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.readEndArray();
+        return elements;
+    }
+
+    private static String readId(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case OBJECT_ID -> reader.readObjectId().toHexString();
+            case STRING -> reader.readString();
+            default -> {
+                reader.skipValue();
+                yield null;
+            }
+        };
+    }
+
+    private static String readString(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.STRING) {
+            return reader.readString();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    private static boolean readBoolean(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.BOOLEAN) {
+            return reader.readBoolean();
+        }
+        reader.skipValue();
+        return false;
+    }
+
+    private static Integer readInteger(BsonReader reader) {
+        Long value = readLong(reader);
+        return value == null ? null : value.intValue();
+    }
+
+    private static Long readLong(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT32 -> (long) reader.readInt32();
+            case INT64 -> reader.readInt64();
+            case DOUBLE -> (long) reader.readDouble();
+            default -> {
+                reader.skipValue();
+                yield null;
+            }
+        };
+    }
+
+    private static Float readFloat(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.DOUBLE) {
+            return (float) reader.readDouble();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    private static LocalDateTime readDateTime(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.DATE_TIME) {
+            // Spring Data stores a LocalDateTime as the instant it has in the default time zone
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(reader.readDateTime()), ZoneId.systemDefault());
+        }
+        reader.skipValue();
+        return null;
+    }
+}
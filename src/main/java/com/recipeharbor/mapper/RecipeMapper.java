@@ -29,6 +29,9 @@ public class RecipeMapper {
                 .ingredients(recipe.getIngredients())
                 .instructions(recipe.getInstructions())
                 .servings(recipe.getServings())
+                .score(recipe.getScore())
+                .version(recipe.getVersion())
+                .updatedAt(recipe.getUpdatedAt())
                 .build();
 
     }
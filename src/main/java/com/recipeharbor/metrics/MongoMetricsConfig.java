@@ -0,0 +1,41 @@
+package com.recipeharbor.metrics;
+
+import com.mongodb.event.CommandEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spring Boot already times the Mongo commands ({@code mongodb.driver.commands}, tagged with the command, collection
+ * and status) and gauges the connection pools ({@code mongodb.driver.pool.size}, {@code checkedout},
+ * {@code waitqueuesize}). This adds the endpoint that issued each command to the command timer, and registers
+ * {@link MongoRequestMetricsListener} for the reply sizes and the pool wait times.
+ */
+@Configuration
+@ConditionalOnProperty(name = "recipeharbor.metrics.mongo.enabled", havingValue = "true", matchIfMissing = true)
+public class MongoMetricsConfig {
+
+    @Bean
+    public MongoCommandTagsProvider mongoCommandTagsProvider() {
+        return new DefaultMongoCommandTagsProvider() {
+            @Override
+            public Iterable<Tag> commandTags(CommandEvent event) {
+                return Tags.concat(super.commandTags(event), "uri", MongoRequestMetricsListener.currentUri());
+            }
+        };
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoRequestMetricsCustomizer(MeterRegistry meterRegistry) {
+        MongoRequestMetricsListener listener = new MongoRequestMetricsListener(meterRegistry);
+        return settings -> settings
+                .addCommandListener(listener)
+                .applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(listener));
+    }
+}
@@ -0,0 +1,100 @@
+package com.recipeharbor.metrics;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.RawBsonDocument;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Completes the driver metrics of Spring Boot ({@code mongodb.driver.commands}, {@code mongodb.driver.pool.*}) with
+ * what they leave out: the size of the command replies ({@value #REPLY_SIZE}) and the time spent waiting for a pooled
+ * connection ({@value #CHECKOUT}), tagged with the outcome of the checkout so an exhausted pool shows up as
+ * {@code outcome=TIMEOUT}.
+ * <p>
+ * The synchronous driver raises its events on the thread that issued the command, so both are tagged with the
+ * endpoint being served by that thread ({@link #currentUri()}), like the command timer.
+ */
+public class MongoRequestMetricsListener implements CommandListener, ConnectionPoolListener {
+
+    static final String REPLY_SIZE = "mongodb.driver.commands.reply.size";
+    static final String CHECKOUT = "mongodb.driver.pool.checkout";
+
+    /**
+     * Tag value of the commands issued outside of a request: startup, background refreshes, streamed responses.
+     */
+    static final String NO_URI = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Map<String, DistributionSummary>> replySizes = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Timer>> checkouts = new ConcurrentHashMap<>();
+
+    public MongoRequestMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        // The driver hands out the reply undecoded, so its size is known without encoding it again
+        if (event.getResponse() instanceof RawBsonDocument response) {
+            String uri = currentUri();
+            replySizes.computeIfAbsent(uri, u -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(event.getCommandName(), command -> DistributionSummary.builder(REPLY_SIZE)
+                            .description("Size of the replies of the Mongo commands")
+                            .baseUnit("bytes")
+                            .tag("command", command)
+                            .tag("uri", uri)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry))
+                    .record(response.getByteBuffer().remaining());
+        }
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        checkout("SUCCESS").record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        checkout(event.getReason().name()).record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer checkout(String outcome) {
+        String uri = currentUri();
+        return checkouts.computeIfAbsent(uri, u -> new ConcurrentHashMap<>())
+                .computeIfAbsent(outcome, o -> Timer.builder(CHECKOUT)
+                        .description("Time waited for a connection of the Mongo pool")
+                        .tag("outcome", o)
+                        .tag("uri", uri)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofNanos(100_000))
+                        .maximumExpectedValue(Duration.ofSeconds(30))
+                        .register(meterRegistry));
+    }
+
+    /**
+     * @return the pattern of the endpoint served by the current thread (Eg: {@code /api/recipe/{id}}), as tagged on
+     * {@code http.server.requests}
+     */
+    static String currentUri() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return NO_URI;
+        }
+        Object pattern = requestAttributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return pattern instanceof String uri ? uri : "UNKNOWN";
+    }
+}
@@ -0,0 +1,89 @@
+package com.recipeharbor.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the public methods of the service layer into the {@value #TIMER} timer, tagged with the service, the method,
+ * the outcome and the exception, and published as a percentile histogram. The controller and repository boundaries
+ * are timed by Spring Boot ({@code http.server.requests}, {@code spring.data.repository.invocations}).
+ * <p>
+ * The timers of a method are looked up once and cached, a call only reads the clock twice and records. With
+ * {@code recipeharbor.metrics.service.enabled=false} the aspect is not registered and the services are not proxied.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "recipeharbor.metrics.service.enabled", havingValue = "true", matchIfMissing = true)
+public class ServiceMetricsAspect {
+
+    static final String TIMER = "recipeharbor.service.calls";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("within(com.recipeharbor.service.impl..*) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodTimers methodTimers = timers.get(method);
+        if (methodTimers == null) {
+            methodTimers = timers.computeIfAbsent(method,
+                    m -> new MethodTimers(joinPoint.getTarget().getClass().getSimpleName(), m.getName()));
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            methodTimers.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            methodTimers.error(e.getClass()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private final class MethodTimers {
+
+        private final String service;
+        private final String method;
+        private final Timer success;
+        private final Map<Class<?>, Timer> errors = new ConcurrentHashMap<>();
+
+        private MethodTimers(String service, String method) {
+            this.service = service;
+            this.method = method;
+            this.success = timer("SUCCESS", "none");
+        }
+
+        private Timer error(Class<?> exception) {
+            return errors.computeIfAbsent(exception, e -> timer("ERROR", e.getSimpleName()));
+        }
+
+        private Timer timer(String outcome, String exception) {
+            return Timer.builder(TIMER)
+                    .description("Latency of the service layer calls")
+                    .tag("service", service)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package com.recipeharbor.service;
 
+import com.recipeharbor.dto.BatchDeleteResultDto;
+import com.recipeharbor.dto.BatchItemResultDto;
+import com.recipeharbor.dto.PantrySearchDto;
 import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.dto.RecipePatchDto;
 import com.recipeharbor.dto.SearchCriteriaDto;
+import com.recipeharbor.service.search.CountMode;
+import com.recipeharbor.service.search.CursorSlice;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 
 /**
  * Author:  Ashwin Kumar
@@ -11,8 +20,16 @@ import org.springframework.data.domain.Page;
 public interface IRecipeService {
 
     RecipeDto createRecipe(RecipeDto recipeDto);
-    RecipeDto getRecipeById(String recipeId);
-    RecipeDto updateRecipe(String recipeId, RecipeDto recipeDto);
+    RecipeDto getRecipeById(String recipeId, RecipeFields fields);
+    RecipeStamp getRecipeStamp(String recipeId);
+    RecipeDto updateRecipe(String recipeId, RecipeDto recipeDto, Long expectedVersion);
+    RecipeDto patchRecipe(String recipeId, RecipePatchDto recipePatchDto, Long expectedVersion);
     boolean deleteRecipe(String recipeId);
-    Page<RecipeDto> searchRecipe(SearchCriteriaDto searchCriteriaDto, int page, int size);
+    Page<RecipeDto> searchRecipe(SearchCriteriaDto searchCriteriaDto, int page, int size, RecipeFields fields);
+    Slice<RecipeDto> searchRecipe(SearchCriteriaDto searchCriteriaDto, int page, int size, CountMode countMode, RecipeFields fields);
+    CursorSlice<RecipeDto> searchRecipeByCursor(SearchCriteriaDto searchCriteriaDto, String cursor, int size, RecipeFields fields);
+    Page<RecipeDto> searchPantry(PantrySearchDto pantrySearchDto, int page, int size);
+    List<BatchItemResultDto> createRecipes(List<RecipeDto> recipeDtos);
+    List<BatchItemResultDto> getRecipesByIds(List<String> recipeIds);
+    BatchDeleteResultDto deleteRecipes(List<String> recipeIds);
 }
@@ -0,0 +1,17 @@
+package com.recipeharbor.service;
+
+import com.recipeharbor.dto.ImportReportDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ *  Service Layer Contracts for moving the recipes collection in and out of Recipe Harbor Application as
+ *  newline-delimited JSON, one RecipeDto per line
+ */
+public interface IRecipeTransferService {
+
+    void exportRecipes(OutputStream outputStream) throws IOException;
+    ImportReportDto importRecipes(InputStream inputStream) throws IOException;
+}
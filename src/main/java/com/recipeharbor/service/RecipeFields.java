@@ -0,0 +1,100 @@
+package com.recipeharbor.service;
+
+import com.recipeharbor.exception.InvalidFieldsRequestException;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * The recipe fields a client asked for with the {@code fields} parameter, named after the properties of the RecipeDto.
+ * They are read from Mongo as a projection and the response only serializes them, so the fields left out are neither
+ * read nor sent. The id is always part of the selection.
+ */
+public final class RecipeFields {
+
+    public static final RecipeFields ALL = new RecipeFields(null);
+
+    /**
+     * Document field of each selectable RecipeDto property.
+     */
+    private static final Map<String, String> DOCUMENT_FIELDS = Map.of(
+            "id", "id",
+            "name", "name",
+            "veg", "vegetarian",
+            "servings", "servings",
+            "ingredients", "ingredients",
+            "instructions", "instructions",
+            "version", "version",
+            "updatedAt", "updatedAt");
+
+    private final SortedSet<String> names;
+
+    private RecipeFields(SortedSet<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * @param fields comma separated RecipeDto properties, every field when {@code null} or blank
+     */
+    public static RecipeFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        SortedSet<String> names = new TreeSet<>();
+        names.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!DOCUMENT_FIELDS.containsKey(name)) {
+                throw new InvalidFieldsRequestException("Unknown field '" + name + "', the fields are "
+                        + String.join(", ", new TreeSet<>(DOCUMENT_FIELDS.keySet())));
+            }
+            names.add(name);
+        }
+        return new RecipeFields(Collections.unmodifiableSortedSet(names));
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    /**
+     * @return the selected RecipeDto properties in alphabetical order, all of them when {@link #isAll()}
+     */
+    public Set<String> names() {
+        return isAll() ? new TreeSet<>(DOCUMENT_FIELDS.keySet()) : names;
+    }
+
+    /**
+     * Restricts the query to the selected fields, plus the creation date the cursor of a next page is built from.
+     */
+    public Query applyTo(Query query) {
+        if (!isAll()) {
+            names.forEach(name -> query.fields().include(DOCUMENT_FIELDS.get(name)));
+            query.fields().include("createdAt");
+        }
+        return query;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof RecipeFields other && Objects.equals(names, other.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(names);
+    }
+
+    @Override
+    public String toString() {
+        return isAll() ? "*" : String.join(",", names);
+    }
+}
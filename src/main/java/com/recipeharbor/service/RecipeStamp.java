@@ -0,0 +1,9 @@
+package com.recipeharbor.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * What a conditional request compares a recipe on, without the recipe itself.
+ */
+public record RecipeStamp(Long version, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,41 @@
+package com.recipeharbor.service.event;
+
+import com.recipeharbor.entity.Recipe;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published synchronously by the service layer after a recipe write reached the database, so that derived
+ * in-memory state (caches, indexes) is brought up to date before the write returns to the client. The ingredient
+ * index also publishes the writes of every node it receives from its change stream, including the ones of this node
+ * a second time.
+ */
+@Getter
+@ToString
+public class RecipeChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final String recipeId;
+    /** State of the recipe after the write, {@code null} for a deletion. */
+    private final Recipe recipe;
+
+    private RecipeChangedEvent(Type type, String recipeId, Recipe recipe) {
+        this.type = type;
+        this.recipeId = recipeId;
+        this.recipe = recipe;
+    }
+
+    public static RecipeChangedEvent created(Recipe recipe) {
+        return new RecipeChangedEvent(Type.CREATED, recipe.getId(), recipe);
+    }
+
+    public static RecipeChangedEvent updated(Recipe recipe) {
+        return new RecipeChangedEvent(Type.UPDATED, recipe.getId(), recipe);
+    }
+
+    public static RecipeChangedEvent deleted(String recipeId) {
+        return new RecipeChangedEvent(Type.DELETED, recipeId, null);
+    }
+}
@@ -0,0 +1,27 @@
+package com.recipeharbor.service.event;
+
+import com.recipeharbor.entity.Recipe;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published synchronously once per bulk insert, in place of a {@link RecipeChangedEvent} per recipe, so that an
+ * import of millions of recipes invalidates the caches and takes the index lock once per batch rather than once per
+ * recipe.
+ */
+@Getter
+public class RecipesCreatedEvent {
+
+    /** The recipes written, in the state they were inserted in. */
+    private final List<Recipe> recipes;
+
+    public RecipesCreatedEvent(List<Recipe> recipes) {
+        this.recipes = List.copyOf(recipes);
+    }
+
+    @Override
+    public String toString() {
+        return "RecipesCreatedEvent(recipes=" + recipes.size() + ")";
+    }
+}
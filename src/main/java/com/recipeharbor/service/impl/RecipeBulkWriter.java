@@ -0,0 +1,105 @@
+package com.recipeharbor.service.impl;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.service.event.RecipesCreatedEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Validates and inserts recipes with one unordered bulk write, shared by the batch create API and the import.
+ */
+@Component
+class RecipeBulkWriter {
+
+    private final MongoTemplate mongoTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    RecipeBulkWriter(MongoTemplate mongoTemplate, Validator validator, ApplicationEventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Checks the recipe against the constraints of the create API.
+     *
+     * @return the violations as {@code field: message} pairs, {@code null} when the recipe is valid
+     */
+    String validate(RecipeDto recipeDto) {
+        Set<ConstraintViolation<RecipeDto>> violations = validator.validate(recipeDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Inserts the recipes and publishes one {@link RecipesCreatedEvent} with the ones written. The write is unordered,
+     * so every recipe is attempted whatever happens to the others. A recipe keeps the dates and version it comes with,
+     * e.g. from an export, and only gets the current time and version 0 for the ones it lacks.
+     *
+     * @return the write errors by position in {@code recipes} in ascending order, empty when all of them were written
+     */
+    Map<Integer, BulkWriteError> insert(List<Recipe> recipes) {
+        if (recipes.isEmpty()) {
+            return Map.of();
+        }
+        // Ids, dates and versions are assigned here rather than by the driver and the mapping layer, so that the change
+        // event carries them and a recipe inserted with its id still gets its dates
+        LocalDateTime now = LocalDateTime.now();
+        for (Recipe recipe : recipes) {
+            if (recipe.getId() == null) {
+                recipe.setId(new ObjectId().toHexString());
+            }
+            if (recipe.getCreatedAt() == null) {
+                recipe.setCreatedAt(now);
+            }
+            if (recipe.getUpdatedAt() == null) {
+                recipe.setUpdatedAt(recipe.getCreatedAt());
+            }
+            if (recipe.getVersion() == null) {
+                recipe.setVersion(0L);
+            }
+        }
+
+        Map<Integer, BulkWriteError> errors = new TreeMap<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class).insert(recipes).execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> errors.put(error.getIndex(), error));
+        }
+        List<Recipe> written = recipes;
+        if (!errors.isEmpty()) {
+            written = new ArrayList<>(recipes.size() - errors.size());
+            for (int i = 0; i < recipes.size(); i++) {
+                if (!errors.containsKey(i)) {
+                    written.add(recipes.get(i));
+                }
+            }
+        }
+        if (!written.isEmpty()) {
+            eventPublisher.publishEvent(new RecipesCreatedEvent(written));
+        }
+        return errors;
+    }
+}
@@ -1,26 +1,74 @@
 package com.recipeharbor.service.impl;
 
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.result.DeleteResult;
+import com.recipeharbor.cache.BoundedCache;
+import com.recipeharbor.dto.BatchDeleteResultDto;
+import com.recipeharbor.dto.BatchItemResultDto;
+import com.recipeharbor.dto.Ingredient;
+import com.recipeharbor.dto.PantrySearchDto;
 import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.dto.RecipePatchDto;
 import com.recipeharbor.dto.SearchCriteriaDto;
 import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.exception.InvalidBatchRequestException;
+import com.recipeharbor.exception.InvalidPatchRequestException;
+import com.recipeharbor.exception.InvalidSearchRequestException;
 import com.recipeharbor.exception.RecipeNotFoundException;
+import com.recipeharbor.exception.RecipeAlreadyExistsException;
+import com.recipeharbor.exception.RecipeVersionConflictException;
 import com.recipeharbor.mapper.RecipeMapper;
 import com.recipeharbor.repository.RecipeRepository;
 import com.recipeharbor.service.IRecipeService;
+import com.recipeharbor.service.RecipeFields;
+import com.recipeharbor.service.RecipeStamp;
+import com.recipeharbor.service.event.RecipeChangedEvent;
+import com.recipeharbor.service.search.CountMode;
+import com.recipeharbor.service.search.CursorSlice;
+import com.recipeharbor.service.search.IngredientIndex;
+import com.recipeharbor.service.search.PantryAggregation;
+import com.recipeharbor.service.search.RecipeDtoReader;
+import com.recipeharbor.service.search.RecipeSearchExecutor;
+import com.recipeharbor.service.search.RecipeSearchQueryBuilder;
+import com.recipeharbor.service.search.SearchCountCache;
+import com.recipeharbor.service.search.SearchCriteriaKey;
+import com.recipeharbor.service.search.SearchCursor;
+import com.recipeharbor.service.search.SearchMetrics;
+import com.recipeharbor.service.search.SearchResultCache;
+import com.recipeharbor.service.search.SearchResultKey;
+import com.recipeharbor.service.search.SearchShape;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 /**
@@ -31,49 +79,142 @@ import java.util.Optional;
 @Slf4j
 public class RecipeServiceImpl implements IRecipeService {
 
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
     private final RecipeRepository recipeRepository;
     private final RecipeMapper recipeMapper;
     private final MongoTemplate mongoTemplate;
+    private final SearchCountCache searchCountCache;
+    private final RecipeSearchExecutor searchExecutor;
+    private final RecipeSearchQueryBuilder searchQueryBuilder;
+    private final BoundedCache<String, Recipe> recipeCache;
+    private final SearchResultCache searchResultCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IngredientIndex ingredientIndex;
+    private final PantryAggregation pantryAggregation;
+    private final RecipeBulkWriter recipeBulkWriter;
+    private final RecipeDtoReader recipeDtoReader;
+    private final SearchMetrics searchMetrics;
+
+    @Value("${recipeharbor.search.estimated-count.cap:10000}")
+    private int estimatedCountCap;
+
+    @Value("${recipeharbor.batch.max-size:500}")
+    private int maxBatchSize;
+
     public RecipeServiceImpl(RecipeRepository recipeRepository,
                              RecipeMapper recipeMapper,
-                             MongoTemplate mongoTemplate) {
+                             MongoTemplate mongoTemplate,
+                             SearchCountCache searchCountCache,
+                             RecipeSearchExecutor searchExecutor,
+                             RecipeSearchQueryBuilder searchQueryBuilder,
+                             BoundedCache<String, Recipe> recipeCache,
+                             SearchResultCache searchResultCache,
+                             ApplicationEventPublisher eventPublisher,
+                             IngredientIndex ingredientIndex,
+                             PantryAggregation pantryAggregation,
+                             RecipeBulkWriter recipeBulkWriter,
+                             RecipeDtoReader recipeDtoReader,
+                             SearchMetrics searchMetrics) {
         this.recipeRepository = recipeRepository;
         this.recipeMapper = recipeMapper;
         this.mongoTemplate = mongoTemplate;
+        this.searchCountCache = searchCountCache;
+        this.searchExecutor = searchExecutor;
+        this.searchQueryBuilder = searchQueryBuilder;
+        this.recipeCache = recipeCache;
+        this.searchResultCache = searchResultCache;
+        this.eventPublisher = eventPublisher;
+        this.ingredientIndex = ingredientIndex;
+        this.pantryAggregation = pantryAggregation;
+        this.recipeBulkWriter = recipeBulkWriter;
+        this.recipeDtoReader = recipeDtoReader;
+        this.searchMetrics = searchMetrics;
     }
 
     @Override
     public RecipeDto createRecipe(RecipeDto recipeDto) {
-        Recipe savedRecipe = recipeRepository.save(recipeMapper.recipeDtoToRecipeEntity(recipeDto));
+        Recipe savedRecipe;
+        try {
+            savedRecipe = recipeRepository.save(recipeMapper.recipeDtoToRecipeEntity(recipeDto));
+        } catch (DuplicateKeyException | OptimisticLockingFailureException e) {
+            // A recipe without a version is inserted, which fails when the id it was given already exists
+            log.error("Recipe with id {} already exists", recipeDto.getId());
+            throw new RecipeAlreadyExistsException("Recipe with id '" + recipeDto.getId() + "' already exists");
+        }
+        recipeCache.put(savedRecipe.getId(), savedRecipe);
+        eventPublisher.publishEvent(RecipeChangedEvent.created(savedRecipe));
         log.info("Recipe with id {} created", savedRecipe.getId());
         return recipeMapper.recipeEntityToRecipeDto(savedRecipe);
     }
 
     @Override
-    public RecipeDto getRecipeById(String recipeId) {
-        Optional<Recipe> recipeDb = recipeRepository.findById(recipeId);
-        if(!recipeDb.isPresent()){
+    public RecipeDto getRecipeById(String recipeId, RecipeFields fields) {
+        if (!fields.isAll()) {
+            return findSomeFieldsById(recipeId, fields);
+        }
+        Recipe recipeDb = recipeCache.get(recipeId, id -> recipeRepository.findById(id).orElse(null));
+        if(recipeDb == null){
             log.error("Recipe with id {} not found", recipeId);
             throw new RecipeNotFoundException("Recipe with id '" + recipeId + "' not found");
         }
         log.info("Recipe with id {} found", recipeId);
-        return recipeMapper.recipeEntityToRecipeDto(recipeDb.get());
+        return recipeMapper.recipeEntityToRecipeDto(recipeDb);
     }
 
     @Override
-    public RecipeDto updateRecipe(String recipeId, RecipeDto recipeDto) {
-
-        Optional<Recipe> recipeToBeUpdated = recipeRepository.findById(recipeId);
-
-        if (!recipeToBeUpdated.isPresent()) {
+    public RecipeStamp getRecipeStamp(String recipeId) {
+        // Read from Mongo rather than the recipe cache, which may still hold a recipe another node has changed since.
+        // Only the version and the date are read, the projected recipe is not cached as it is incomplete
+        Query query = new Query(Criteria.where("id").is(recipeId));
+        query.fields().include("version", "updatedAt");
+        Recipe recipeDb = mongoTemplate.findOne(query, Recipe.class);
+        Recipe cachedRecipe = recipeCache.getIfPresent(recipeId);
+        if (cachedRecipe != null && (recipeDb == null || !Objects.equals(cachedRecipe.getVersion(), recipeDb.getVersion()))) {
+            // The next read of the recipe loads the version the stamp is of
+            recipeCache.invalidate(recipeId);
+        }
+        if (recipeDb == null) {
             log.error("Recipe with id {} not found", recipeId);
             throw new RecipeNotFoundException("Recipe with id '" + recipeId + "' not found");
         }
+        return new RecipeStamp(recipeDb.getVersion(), recipeDb.getUpdatedAt());
+    }
 
+    @Override
+    public RecipeDto updateRecipe(String recipeId, RecipeDto recipeDto, Long expectedVersion) {
+
+        // Setting every field but the id and the creation date replaces the recipe with one findAndModify and keeps
+        // createdAt as stored, without reading the recipe first
         Recipe finalRecipe = recipeMapper.recipeDtoToRecipeEntity(recipeDto);
-        Recipe updatedRecipe = recipeRepository.save(updateOldValues(recipeToBeUpdated.get(), finalRecipe));
-        log.info("Recipe with id {} updated", recipeId);
-        return recipeMapper.recipeEntityToRecipeDto(updatedRecipe);
+        Update update = new Update()
+                .set("name", finalRecipe.getName())
+                .set("vegetarian", finalRecipe.isVegetarian())
+                .set("servings", finalRecipe.getServings())
+                .set("ingredients", finalRecipe.getIngredients())
+                .set("instructions", finalRecipe.getInstructions());
+        return applyUpdate(recipeId, expectedVersion, update);
+    }
+
+    @Override
+    public RecipeDto patchRecipe(String recipeId, RecipePatchDto recipePatchDto, Long expectedVersion) {
+
+        Update update = new Update();
+        if (recipePatchDto.getName() != null) {
+            update.set("name", recipePatchDto.getName());
+        }
+        if (recipePatchDto.getVeg() != null) {
+            update.set("vegetarian", recipePatchDto.getVeg());
+        }
+        if (recipePatchDto.getServings() != null) {
+            update.set("servings", recipePatchDto.getServings());
+        }
+        setOrPush(update, "ingredients", recipePatchDto.getIngredients(), recipePatchDto.getAddIngredients());
+        setOrPush(update, "instructions", recipePatchDto.getInstructions(), recipePatchDto.getAddInstructions());
+        if (update.getUpdateObject().isEmpty()) {
+            throw new InvalidPatchRequestException("At least one field to update is required");
+        }
+        return applyUpdate(recipeId, expectedVersion, update);
     }
 
     @Override
@@ -81,54 +222,406 @@ public class RecipeServiceImpl implements IRecipeService {
 
         Query query = new Query(Criteria.where("id").is(recipeId));
         DeleteResult result = mongoTemplate.remove(query, Recipe.class);
+        recipeCache.invalidate(recipeId);
 
         if (result.getDeletedCount() == 0) {
             log.error("Recipe with id {} not found", recipeId);
             throw new RecipeNotFoundException("Recipe with id '" + recipeId + "' not found");
         }
+        eventPublisher.publishEvent(RecipeChangedEvent.deleted(recipeId));
         log.info("Recipe with id {} deleted", recipeId);
         return true;
     }
 
     @Override
-    public Page<RecipeDto> searchRecipe(SearchCriteriaDto searchCriteriaDto, int page, int size) {
+    public List<BatchItemResultDto> createRecipes(List<RecipeDto> recipeDtos) {
+        checkBatchSize(recipeDtos.size());
+
+        BatchItemResultDto[] results = new BatchItemResultDto[recipeDtos.size()];
+        List<Recipe> recipes = new ArrayList<>(recipeDtos.size());
+        List<Integer> positions = new ArrayList<>(recipeDtos.size());
+        for (int i = 0; i < recipeDtos.size(); i++) {
+            if (recipeDtos.get(i) == null) {
+                results[i] = failedItem(i, null, HttpStatus.BAD_REQUEST, "Recipe is required");
+                continue;
+            }
+            String violations = recipeBulkWriter.validate(recipeDtos.get(i));
+            if (violations != null) {
+                results[i] = failedItem(i, recipeDtos.get(i).getId(), HttpStatus.BAD_REQUEST, violations);
+            } else {
+                recipes.add(recipeMapper.recipeDtoToRecipeEntity(recipeDtos.get(i)));
+                positions.add(i);
+            }
+        }
+
+        Map<Integer, BulkWriteError> errors = recipeBulkWriter.insert(recipes);
+        for (int j = 0; j < recipes.size(); j++) {
+            int i = positions.get(j);
+            BulkWriteError error = errors.get(j);
+            if (error == null) {
+                Recipe savedRecipe = recipes.get(j);
+                recipeCache.put(savedRecipe.getId(), savedRecipe);
+                results[i] = BatchItemResultDto.builder().index(i).id(savedRecipe.getId())
+                        .status(HttpStatus.CREATED.value()).recipe(recipeMapper.recipeEntityToRecipeDto(savedRecipe)).build();
+            } else {
+                HttpStatus status = error.getCode() == DUPLICATE_KEY_ERROR ? HttpStatus.CONFLICT : HttpStatus.INTERNAL_SERVER_ERROR;
+                results[i] = failedItem(i, recipeDtos.get(i).getId(), status, error.getMessage());
+            }
+        }
+
+        log.info("{} of {} recipes created", recipes.size() - errors.size(), recipeDtos.size());
+        return List.of(results);
+    }
+
+    @Override
+    public List<BatchItemResultDto> getRecipesByIds(List<String> recipeIds) {
+        checkBatchSize(recipeIds.size());
+
+        Map<String, Recipe> recipesById = new HashMap<>();
+        List<String> uncachedIds = new ArrayList<>();
+        for (String recipeId : new LinkedHashSet<>(recipeIds)) {
+            Recipe cachedRecipe = recipeCache.getIfPresent(recipeId);
+            if (cachedRecipe != null) {
+                recipesById.put(recipeId, cachedRecipe);
+            } else {
+                uncachedIds.add(recipeId);
+            }
+        }
+        if (!uncachedIds.isEmpty()) {
+            mongoTemplate.find(new Query(Criteria.where("id").in(uncachedIds)), Recipe.class)
+                    .forEach(recipe -> recipesById.put(recipe.getId(), recipe));
+        }
+
+        List<BatchItemResultDto> results = new ArrayList<>(recipeIds.size());
+        for (int i = 0; i < recipeIds.size(); i++) {
+            Recipe recipe = recipesById.get(recipeIds.get(i));
+            results.add(recipe != null
+                    ? BatchItemResultDto.builder().index(i).id(recipe.getId())
+                            .status(HttpStatus.OK.value()).recipe(recipeMapper.recipeEntityToRecipeDto(recipe)).build()
+                    : failedItem(i, recipeIds.get(i), HttpStatus.NOT_FOUND, "Recipe with id '" + recipeIds.get(i) + "' not found"));
+        }
+
+        log.info("{} of {} recipes found", recipesById.size(), recipeIds.size());
+        return results;
+    }
+
+    @Override
+    public BatchDeleteResultDto deleteRecipes(List<String> recipeIds) {
+        checkBatchSize(recipeIds.size());
+
+        // One command for the whole batch, which only reports how many recipes it removed. Whichever were removed by
+        // this batch, by another node or before it, none of the ids is left afterwards, so all of them are dropped from
+        // the caches even when this batch removed none
+        Set<String> distinctIds = new LinkedHashSet<>(recipeIds);
+        long deleted = mongoTemplate.remove(new Query(Criteria.where("id").in(distinctIds)), Recipe.class)
+                .getDeletedCount();
+        for (String recipeId : distinctIds) {
+            recipeCache.invalidate(recipeId);
+            eventPublisher.publishEvent(RecipeChangedEvent.deleted(recipeId));
+        }
+
+        log.info("{} of {} recipes deleted", deleted, distinctIds.size());
+        return new BatchDeleteResultDto(distinctIds.size(), deleted);
+    }
+
+    private void checkBatchSize(int size) {
+        if (size == 0 || size > maxBatchSize) {
+            throw new InvalidBatchRequestException("A batch must contain between 1 and " + maxBatchSize + " items");
+        }
+    }
+
+    private static BatchItemResultDto failedItem(int index, String recipeId, HttpStatus status, String error) {
+        return BatchItemResultDto.builder().index(index).id(recipeId).status(status.value()).error(error).build();
+    }
+
+    @Override
+    public Page<RecipeDto> searchRecipe(SearchCriteriaDto searchCriteriaDto, int page, int size, RecipeFields fields) {
+
+        log.debug("Searching for recipes of shape {}, page {} of size {}", SearchShape.of(searchCriteriaDto).getName(), page, size);
+
+        return searchResultCache.get(SearchResultKey.page(searchCriteriaDto, page, size, CountMode.EXACT, fields),
+                () -> findPage(searchCriteriaDto, page, size, fields));
+    }
+
+    @Override
+    public Slice<RecipeDto> searchRecipe(SearchCriteriaDto searchCriteriaDto, int page, int size, CountMode countMode,
+                                         RecipeFields fields) {
+
+        if (countMode == CountMode.EXACT) {
+            return searchRecipe(searchCriteriaDto, page, size, fields);
+        }
+
+        log.debug("Searching for recipes of shape {}, page {} of size {} and count mode {}",
+                SearchShape.of(searchCriteriaDto).getName(), page, size, countMode);
+
+        return searchResultCache.get(SearchResultKey.page(searchCriteriaDto, page, size, countMode, fields),
+                () -> findSlice(searchCriteriaDto, page, size, countMode, fields));
+    }
+
+    @Override
+    public CursorSlice<RecipeDto> searchRecipeByCursor(SearchCriteriaDto searchCriteriaDto, String cursor, int size,
+                                                       RecipeFields fields) {
+
+        log.debug("Searching for recipes of shape {} after a cursor, size {}", SearchShape.of(searchCriteriaDto).getName(), size);
 
-        Criteria criteria = new Criteria();
+        if (size < 1) {
+            throw new InvalidSearchRequestException("Page size must not be less than one");
+        }
+        if (searchCriteriaDto.getText() != null && Boolean.TRUE.equals(searchCriteriaDto.getSortByRelevance())) {
+            throw new InvalidSearchRequestException("Cursor pagination is not supported when sorting by relevance");
+        }
+
+        SearchCursor after = SearchCursor.decode(cursor);
+        return searchResultCache.get(SearchResultKey.cursor(searchCriteriaDto, cursor, size, fields),
+                () -> findSliceAfter(searchCriteriaDto, after, size, fields));
+    }
+
+    @Override
+    public Page<RecipeDto> searchPantry(PantrySearchDto pantrySearchDto, int page, int size) {
+
+        List<String> pantry = pantrySearchDto.getIngredients().stream().filter(Objects::nonNull).distinct().toList();
+        int maxMissing = pantrySearchDto.getMaxMissing() == null ? 0 : pantrySearchDto.getMaxMissing();
+        log.debug("Searching for recipes with a pantry of {} ingredients, at most {} missing", pantry.size(), maxMissing);
+        Pageable pageable = PageRequest.of(page, size);
+
+        Optional<IngredientIndex.Hits> hits = ingredientIndex.searchPantry(pantry, maxMissing, pageable.getOffset(), size);
+        Page<Recipe> recipes = hits.isPresent()
+                ? new PageImpl<>(findRecipesByIdsInOrder(hits.get().ids(), RecipeFields.ALL), pageable, hits.get().total())
+                : pantryAggregation.findPage(pantry, maxMissing, pageable);
+
+        Set<String> inPantry = new HashSet<>(pantry);
+        Page<RecipeDto> recipeDtos = recipes.map(recipe -> {
+            RecipeDto recipeDto = recipeMapper.recipeEntityToRecipeDto(recipe);
+            recipeDto.setMissingIngredients(recipe.getIngredients().stream()
+                    .map(Ingredient::getName)
+                    .filter(name -> name != null && !inPantry.contains(name))
+                    .distinct()
+                    .toList());
+            return recipeDto;
+        });
+
+        log.info("Found {} recipes that can be cooked from the pantry", recipeDtos.getNumberOfElements());
+        return recipeDtos;
+    }
 
-        log.info("Searching for recipes with criteria: {}", searchCriteriaDto.toString());
+    private Page<RecipeDto> findPage(SearchCriteriaDto searchCriteriaDto, int page, int size, RecipeFields fields) {
+        long start = System.nanoTime();
+        SearchShape shape = SearchShape.of(searchCriteriaDto);
+        Pageable pageable = PageRequest.of(page, size, RecipeSearchQueryBuilder.SEARCH_ORDER);
+        Optional<IngredientIndex.Hits> hits = ingredientIndex.search(searchCriteriaDto, pageable.getOffset(), size);
+        if (hits.isPresent()) {
+            Page<RecipeDto> recipeDtos = new PageImpl<>(findByIdsInOrder(hits.get().ids(), fields), pageable, hits.get().total());
+            searchMetrics.recordIndexSearch(shape, start);
+            return recipeDtos;
+        }
 
-        if(searchCriteriaDto.getVegetarian()!=null){
-            criteria.and("vegetarian").is(searchCriteriaDto.getVegetarian());
+        Query query = fields.applyTo(searchQueryBuilder.build(searchCriteriaDto, null));
+        // The executors page the query themselves, the explain gets a paged copy
+        Query pagedQuery = Query.of(query).with(pageable);
+        Page<RecipeDto> recipeDtos;
+        if (recipeDtoReader.isEnabled()) {
+            // The fast read path pairs its find with a count whichever executor is configured, the count only runs
+            // when the page does not tell the total
+            Query countQuery = Query.of(query);
+            recipeDtos = PageableExecutionUtils.getPage(recipeDtoReader.find(query.with(pageable)), pageable,
+                    () -> mongoTemplate.count(countQuery, Recipe.class));
+            searchMetrics.recordQuery(shape, start, pagedQuery);
+        } else {
+            recipeDtos = searchExecutor.findPage(query, pageable).map(recipeMapper::recipeEntityToRecipeDto);
+            searchMetrics.recordQuery(shape, start, pagedQuery, () -> searchExecutor.explainExecution(pagedQuery));
         }
-        if(searchCriteriaDto.getServings()!=null){
-            criteria.and("servings").is(searchCriteriaDto.getServings());
+
+        log.info("Found {} recipes matching the search criteria", recipeDtos.getNumberOfElements());
+        return recipeDtos;
+    }
+
+    private Slice<RecipeDto> findSlice(SearchCriteriaDto searchCriteriaDto, int page, int size, CountMode countMode,
+                                       RecipeFields fields) {
+        long start = System.nanoTime();
+        SearchShape shape = SearchShape.of(searchCriteriaDto);
+        Pageable pageable = PageRequest.of(page, size, RecipeSearchQueryBuilder.SEARCH_ORDER);
+        Optional<IngredientIndex.Hits> hits = ingredientIndex.search(searchCriteriaDto, pageable.getOffset(), size);
+        if (hits.isPresent()) {
+            // The index counts its matches for free, so the count is exact whichever mode was asked for
+            List<RecipeDto> recipeDtos = findByIdsInOrder(hits.get().ids(), fields);
+            searchMetrics.recordIndexSearch(shape, start);
+            return countMode == CountMode.NONE
+                    ? new SliceImpl<>(recipeDtos, pageable, pageable.getOffset() + size < hits.get().total())
+                    : new PageImpl<>(recipeDtos, pageable, hits.get().total());
         }
-        if(searchCriteriaDto.getIncludeIngredients()!=null){
-            criteria.and("ingredients").elemMatch(Criteria.where("name").in(searchCriteriaDto.getIncludeIngredients()));
+
+        Query query = fields.applyTo(searchQueryBuilder.build(searchCriteriaDto, null));
+
+        if (countMode == CountMode.ESTIMATED) {
+            // A capped count stops as soon as the cap is reached, which bounds its cost on broad criteria
+            long count = searchCountCache.get(SearchCriteriaKey.of(searchCriteriaDto),
+                    () -> mongoTemplate.count(Query.of(query).limit(estimatedCountCap), Recipe.class));
+            Page<RecipeDto> recipeDtos = findPageWithCount(query, pageable, count);
+            searchMetrics.recordQuery(shape, start, query);
+            return recipeDtos;
         }
-        if(searchCriteriaDto.getExcludeIngredients()!=null) {
-            criteria.and("ingredients").not().elemMatch(Criteria.where("name").in(searchCriteriaDto.getExcludeIngredients()));
+
+        // One extra document tells whether there is a next page without counting the matches
+        query.with(pageable).limit(size + 1);
+        List<RecipeDto> recipeDtos = findRecipeDtos(query);
+        searchMetrics.recordQuery(shape, start, query);
+        boolean hasNext = recipeDtos.size() > size;
+        if (hasNext) {
+            recipeDtos = recipeDtos.subList(0, size);
         }
-        if(searchCriteriaDto.getInstructionsText()!=null){
-            String regex = searchCriteriaDto.getInstructionsText(); // Ensure full-text search
-            criteria.and("instructions").elemMatch(Criteria.where("description").regex(regex, "i"));
+
+        log.info("Found {} recipes matching the search criteria", recipeDtos.size());
+        return new SliceImpl<>(recipeDtos, pageable, hasNext);
+    }
+
+    private CursorSlice<RecipeDto> findSliceAfter(SearchCriteriaDto searchCriteriaDto, SearchCursor after, int size,
+                                                  RecipeFields fields) {
+        long start = System.nanoTime();
+        SearchShape shape = SearchShape.of(searchCriteriaDto);
+        // One extra recipe tells whether there is a next page without counting the matches
+        Optional<IngredientIndex.Hits> hits = after == null
+                ? ingredientIndex.search(searchCriteriaDto, 0, size + 1)
+                : ingredientIndex.searchAfter(searchCriteriaDto, after.getId(), size + 1);
+        List<Recipe> recipes;
+        boolean hasNext;
+        if (hits.isPresent()) {
+            List<String> ids = hits.get().ids();
+            hasNext = ids.size() > size;
+            recipes = findRecipesByIdsInOrder(hasNext ? ids.subList(0, size) : ids, fields);
+            searchMetrics.recordIndexSearch(shape, start);
+        } else {
+            Query query = fields.applyTo(searchQueryBuilder.build(searchCriteriaDto, after))
+                    .with(RecipeSearchQueryBuilder.SEARCH_ORDER)
+                    .limit(size + 1);
+            recipes = mongoTemplate.find(query, Recipe.class);
+            searchMetrics.recordQuery(shape, start, query);
+            hasNext = recipes.size() > size;
+            if (hasNext) {
+                recipes = recipes.subList(0, size);
+            }
         }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Query query = new Query(criteria).with(pageable);
-        Query queryTotal = new Query(criteria);
+        String nextCursor = hasNext && !recipes.isEmpty() ? SearchCursor.after(recipes.get(recipes.size() - 1)).encode() : null;
+        List<RecipeDto> recipeDtos = recipes.stream().map(recipeMapper::recipeEntityToRecipeDto).toList();
 
-        long count = mongoTemplate.count(queryTotal, Recipe.class);
-        List<RecipeDto> recipeDtos = mongoTemplate.find(query, Recipe.class).stream().map(recipeMapper::recipeEntityToRecipeDto).toList();
+        log.info("Found {} recipes matching the search criteria", recipeDtos.size());
+        return new CursorSlice<>(recipeDtos, PageRequest.of(0, size, RecipeSearchQueryBuilder.SEARCH_ORDER), nextCursor);
+    }
+
+    private Page<RecipeDto> findPageWithCount(Query query, Pageable pageable, long count) {
+        query.with(pageable);
+        List<RecipeDto> recipeDtos = findRecipeDtos(query);
 
         log.info("Found {} recipes matching the search criteria", recipeDtos.size());
         return PageableExecutionUtils.getPage(recipeDtos, pageable, () -> count);
+    }
 
+    private List<RecipeDto> findByIdsInOrder(List<String> ids, RecipeFields fields) {
+        List<RecipeDto> recipeDtos = recipeDtoReader.isEnabled()
+                ? inOrder(ids, ids.isEmpty() ? List.of() : recipeDtoReader.find(byIds(ids, fields)), RecipeDto::getId)
+                : findRecipesByIdsInOrder(ids, fields).stream().map(recipeMapper::recipeEntityToRecipeDto).toList();
+
+        log.info("Found {} recipes matching the search criteria in the ingredient index", recipeDtos.size());
+        return recipeDtos;
+    }
+
+    /**
+     * Fetches the recipes of a page answered by the ingredient index, in the order of the ids. A recipe deleted
+     * through another node since the index was built is simply left out of the page.
+     */
+    private List<Recipe> findRecipesByIdsInOrder(List<String> ids, RecipeFields fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return inOrder(ids, mongoTemplate.find(byIds(ids, fields), Recipe.class), Recipe::getId);
+    }
+
+    private static Query byIds(List<String> ids, RecipeFields fields) {
+        return fields.applyTo(new Query(Criteria.where("id").in(ids)));
+    }
+
+    private static <T> List<T> inOrder(List<String> ids, List<T> recipes, Function<T, String> idOf) {
+        Map<String, T> recipesById = recipes.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream().map(recipesById::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Runs a search or fetch query, decoding the recipes straight into DTOs when the fast read path is enabled.
+     */
+    private List<RecipeDto> findRecipeDtos(Query query) {
+        if (recipeDtoReader.isEnabled()) {
+            return recipeDtoReader.find(query);
+        }
+        return mongoTemplate.find(query, Recipe.class).stream().map(recipeMapper::recipeEntityToRecipeDto).toList();
+    }
+
+    /**
+     * Reads some fields of a recipe, from the recipe cache when it holds the recipe or else as a projection that is
+     * not cached, being incomplete.
+     */
+    private RecipeDto findSomeFieldsById(String recipeId, RecipeFields fields) {
+        Recipe cachedRecipe = recipeCache.getIfPresent(recipeId);
+        Query query = fields.applyTo(new Query(Criteria.where("id").is(recipeId)));
+        RecipeDto recipeDto;
+        if (cachedRecipe != null) {
+            recipeDto = recipeMapper.recipeEntityToRecipeDto(cachedRecipe);
+        } else if (recipeDtoReader.isEnabled()) {
+            recipeDto = recipeDtoReader.find(query.limit(1)).stream().findFirst().orElse(null);
+        } else {
+            Recipe recipe = mongoTemplate.findOne(query, Recipe.class);
+            recipeDto = recipe == null ? null : recipeMapper.recipeEntityToRecipeDto(recipe);
+        }
+        if (recipeDto == null) {
+            log.error("Recipe with id {} not found", recipeId);
+            throw new RecipeNotFoundException("Recipe with id '" + recipeId + "' not found");
+        }
+        log.info("Recipe with id {} found", recipeId);
+        return recipeDto;
+    }
+
+    private static void setOrPush(Update update, String field, List<?> replacement, List<?> additions) {
+        if (replacement != null && additions != null) {
+            throw new InvalidPatchRequestException("'" + field + "' cannot be replaced and added to at once");
+        }
+        if (replacement != null) {
+            update.set(field, replacement);
+        } else if (additions != null) {
+            update.push(field).each(additions.toArray());
+        }
     }
 
-    private Recipe updateOldValues(Recipe recipeFromDb, Recipe finalRecipe) {
-        finalRecipe.setId(recipeFromDb.getId());
-        finalRecipe.setCreatedAt(recipeFromDb.getCreatedAt());
-        return finalRecipe;
+    /**
+     * Applies the update to the recipe in one round trip and returns the recipe as written.
+     * When an expected version is given the update only matches that version of the recipe, so of two concurrent
+     * updates of the same version the second one fails instead of overwriting the first.
+     */
+    private RecipeDto applyUpdate(String recipeId, Long expectedVersion, Update update) {
+        // findAndModify bypasses the auditing and the versioning, both are part of the update
+        update.set("updatedAt", LocalDateTime.now());
+        update.inc("version", 1);
+        Criteria criteria = Criteria.where("id").is(recipeId);
+        if (expectedVersion != null) {
+            // Recipes written before versioning have no version field and are at version 0
+            criteria = expectedVersion == 0
+                    ? criteria.and("version").in(0L, null)
+                    : criteria.and("version").is(expectedVersion);
+        }
+        Recipe updatedRecipe = mongoTemplate.findAndModify(new Query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true), Recipe.class);
+
+        if (updatedRecipe == null) {
+            if (expectedVersion != null && mongoTemplate.exists(new Query(Criteria.where("id").is(recipeId)), Recipe.class)) {
+                log.error("Recipe with id {} is no longer at version {}", recipeId, expectedVersion);
+                throw new RecipeVersionConflictException("Recipe with id '" + recipeId + "' was modified since version "
+                        + expectedVersion);
+            }
+            log.error("Recipe with id {} not found", recipeId);
+            throw new RecipeNotFoundException("Recipe with id '" + recipeId + "' not found");
+        }
+
+        recipeCache.put(recipeId, updatedRecipe);
+        eventPublisher.publishEvent(RecipeChangedEvent.updated(updatedRecipe));
+        log.info("Recipe with id {} updated", recipeId);
+        return recipeMapper.recipeEntityToRecipeDto(updatedRecipe);
     }
 }
@@ -0,0 +1,167 @@
+package com.recipeharbor.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.recipeharbor.dto.ImportErrorDto;
+import com.recipeharbor.dto.ImportReportDto;
+import com.recipeharbor.dto.RecipeTransferDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.mapper.RecipeMapper;
+import com.recipeharbor.service.IRecipeTransferService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ *  Service Layer for the NDJSON export and import of the recipes collection.
+ *  Both directions stream: the export writes the recipes as they come from a Mongo cursor and the import reads the
+ *  body line by line and writes it in unordered bulk batches, so memory stays constant whatever the collection size.
+ *  A recipe keeps its dates and version through an export and an import.
+ */
+@Service
+@Slf4j
+public class RecipeTransferServiceImpl implements IRecipeTransferService {
+
+    private final MongoTemplate mongoTemplate;
+    private final RecipeMapper recipeMapper;
+    private final ObjectMapper objectMapper;
+    private final RecipeBulkWriter recipeBulkWriter;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public RecipeTransferServiceImpl(MongoTemplate mongoTemplate,
+                                     RecipeMapper recipeMapper,
+                                     ObjectMapper objectMapper,
+                                     RecipeBulkWriter recipeBulkWriter,
+                                     @Value("${recipeharbor.transfer.batch-size:1000}") int batchSize,
+                                     @Value("${recipeharbor.transfer.max-reported-errors:1000}") int maxReportedErrors) {
+        this.mongoTemplate = mongoTemplate;
+        this.recipeMapper = recipeMapper;
+        this.objectMapper = objectMapper;
+        this.recipeBulkWriter = recipeBulkWriter;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public void exportRecipes(OutputStream outputStream) throws IOException {
+        log.info("Exporting recipes");
+
+        long exported = 0;
+        Query query = new Query().with(Sort.by("id")).cursorBatchSize(batchSize);
+        OutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+        try (Stream<Recipe> recipes = mongoTemplate.stream(query, Recipe.class)) {
+            Iterator<Recipe> iterator = recipes.iterator();
+            while (iterator.hasNext()) {
+                Recipe recipe = iterator.next();
+                RecipeTransferDto line = new RecipeTransferDto(recipeMapper.recipeEntityToRecipeDto(recipe),
+                        recipe.getCreatedAt(), null, null);
+                out.write(objectMapper.writeValueAsBytes(line));
+                out.write('\n');
+                exported++;
+            }
+        }
+        out.flush();
+
+        log.info("Exported {} recipes", exported);
+    }
+
+    @Override
+    public ImportReportDto importRecipes(InputStream inputStream) throws IOException {
+        log.info("Importing recipes in batches of {}", batchSize);
+
+        ImportRun run = new ImportRun();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!line.isBlank()) {
+                run.read(lineNumber, line);
+            }
+        }
+        run.flush();
+
+        log.info("Imported {} of {} recipes, {} lines rejected", run.imported, run.lines, run.failed);
+        return new ImportReportDto(run.lines, run.imported, run.failed, run.errors, run.failed > run.errors.size());
+    }
+
+    /**
+     * State of one import: the pending batch with the line number of each of its recipes and the running totals.
+     */
+    private class ImportRun {
+
+        private final List<Recipe> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchLines = new ArrayList<>(batchSize);
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+        private long lines;
+        private long imported;
+        private long failed;
+
+        void read(long lineNumber, String line) {
+            lines++;
+            RecipeTransferDto transferDto;
+            try {
+                transferDto = objectMapper.readValue(line, RecipeTransferDto.class);
+            } catch (JsonProcessingException e) {
+                reject(lineNumber, "Malformed recipe: " + e.getOriginalMessage());
+                return;
+            }
+            // A null literal reads as no DTO at all, an object without recipe fields may leave the recipe unset
+            if (transferDto == null || transferDto.getRecipe() == null) {
+                reject(lineNumber, "Malformed recipe: not a recipe object");
+                return;
+            }
+            String violations = recipeBulkWriter.validate(transferDto.getRecipe());
+            if (violations != null) {
+                reject(lineNumber, violations);
+                return;
+            }
+            // Exports from before the creation date was exported only carry the date of the last change
+            Recipe recipe = recipeMapper.recipeDtoToRecipeEntity(transferDto.getRecipe());
+            recipe.setCreatedAt(transferDto.getCreatedAt() != null ? transferDto.getCreatedAt() : transferDto.getUpdatedAt());
+            recipe.setUpdatedAt(transferDto.getUpdatedAt());
+            recipe.setVersion(transferDto.getVersion());
+            batch.add(recipe);
+            batchLines.add(lineNumber);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            Map<Integer, BulkWriteError> rejected = recipeBulkWriter.insert(batch);
+            rejected.forEach((index, error) -> reject(batchLines.get(index), error.getMessage()));
+            imported += batch.size() - rejected.size();
+            batch.clear();
+            batchLines.clear();
+        }
+
+        void reject(long lineNumber, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportErrorDto(lineNumber, message));
+            }
+        }
+    }
+}
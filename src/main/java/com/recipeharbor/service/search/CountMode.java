@@ -0,0 +1,28 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.exception.InvalidSearchRequestException;
+
+import java.util.Locale;
+
+/**
+ * How the total number of matches is computed for a page of search results.
+ */
+public enum CountMode {
+
+    /** Count every match before fetching the page (a Page with an exact total). */
+    EXACT,
+
+    /** Skip counting and only report whether a next page exists (a Slice). */
+    NONE,
+
+    /** A count capped at a configured limit and cached per normalized criteria for a short time. */
+    ESTIMATED;
+
+    public static CountMode fromValue(String value) {
+        try {
+            return CountMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSearchRequestException("Invalid count mode '" + value + "', expected one of exact, none or estimated");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.index.SearchPlanInspector;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Search executor that answers the page and the total in a single aggregation:
+ * <pre>
+ * [ { $match: filter },
+ *   { $facet: { page:  [ { $sort }, { $skip }, { $limit } ],
+ *               total: [ { $count: "count" } ] } } ]
+ * </pre>
+ * A projection of the query becomes a {@code $project} stage of the page. The filter is evaluated once and only one
+ * command is sent to the server. Enabled with
+ * {@code recipeharbor.search.executor=facet}.
+ */
+@Component
+@ConditionalOnProperty(name = "recipeharbor.search.executor", havingValue = "facet")
+public class FacetSearchExecutor implements RecipeSearchExecutor {
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoConverter converter;
+    private final QueryMapper queryMapper;
+    private final MongoPersistentEntity<?> recipeEntity;
+    private final SearchPlanInspector searchPlanInspector;
+
+    public FacetSearchExecutor(MongoTemplate mongoTemplate, SearchPlanInspector searchPlanInspector) {
+        this.mongoTemplate = mongoTemplate;
+        this.searchPlanInspector = searchPlanInspector;
+        this.converter = mongoTemplate.getConverter();
+        this.queryMapper = new QueryMapper(converter);
+        this.recipeEntity = converter.getMappingContext().getRequiredPersistentEntity(Recipe.class);
+    }
+
+    @Override
+    public Page<Recipe> findPage(Query query, Pageable pageable) {
+        query.with(pageable);
+        List<Document> pipeline = pipeline(query);
+
+        Document result = mongoTemplate.execute(Recipe.class, collection -> collection.aggregate(pipeline).first());
+        if (result == null) {
+            // No document at all is only returned when the collection does not exist yet
+            return Page.empty(pageable);
+        }
+
+        List<Recipe> recipes = result.getList("page", Document.class).stream()
+                .map(document -> converter.read(Recipe.class, document))
+                .toList();
+        List<Document> total = result.getList("total", Document.class);
+        long count = total.isEmpty() ? 0 : ((Number) total.get(0).get("count")).longValue();
+        return PageableExecutionUtils.getPage(recipes, pageable, () -> count);
+    }
+
+    @Override
+    public SearchPlanInspector.ExplainedExecution explainExecution(Query pagedQuery) {
+        return searchPlanInspector.explainAggregation(pipeline(pagedQuery), pagedQuery.getSkip(), pagedQuery.getLimit());
+    }
+
+    /**
+     * The aggregation answering the paged query.
+     */
+    private List<Document> pipeline(Query query) {
+        List<Document> pageStages = new ArrayList<>();
+        pageStages.add(new Document("$sort", queryMapper.getMappedSort(query.getSortObject(), recipeEntity)));
+        pageStages.add(new Document("$skip", query.getSkip()));
+        pageStages.add(new Document("$limit", query.getLimit()));
+        if (query instanceof TextQuery) {
+            pageStages.add(new Document("$addFields", new Document("score", new Document("$meta", "textScore"))));
+        }
+        Document fields = query.getFieldsObject();
+        if (fields.keySet().stream().anyMatch(field -> !field.equals("score"))) {
+            // The projection of the find, where the text score is already a field of the page documents
+            Document projection = queryMapper.getMappedFields(fields, recipeEntity);
+            if (query instanceof TextQuery) {
+                projection.put("score", 1);
+            }
+            pageStages.add(new Document("$project", projection));
+        }
+
+        return List.of(
+                new Document("$match", queryMapper.getMappedObject(query.getQueryObject(), recipeEntity)),
+                new Document("$facet", new Document("page", pageStages)
+                        .append("total", List.of(new Document("$count", "count")))));
+    }
+}
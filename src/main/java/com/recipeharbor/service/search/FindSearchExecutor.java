@@ -0,0 +1,45 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.index.SearchPlanInspector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default search executor: a {@code count} followed by a {@code find}, two round trips that evaluate the
+ * same filter twice.
+ */
+@Component
+@ConditionalOnProperty(name = "recipeharbor.search.executor", havingValue = "find", matchIfMissing = true)
+public class FindSearchExecutor implements RecipeSearchExecutor {
+
+    private final MongoTemplate mongoTemplate;
+    private final SearchPlanInspector searchPlanInspector;
+
+    public FindSearchExecutor(MongoTemplate mongoTemplate, SearchPlanInspector searchPlanInspector) {
+        this.mongoTemplate = mongoTemplate;
+        this.searchPlanInspector = searchPlanInspector;
+    }
+
+    @Override
+    public Page<Recipe> findPage(Query query, Pageable pageable) {
+        long count = mongoTemplate.count(query, Recipe.class);
+        List<Recipe> recipes = mongoTemplate.find(query.with(pageable), Recipe.class);
+        return PageableExecutionUtils.getPage(recipes, pageable, () -> count);
+    }
+
+    /**
+     * Explains the {@code find}, the count evaluates the same filter.
+     */
+    @Override
+    public SearchPlanInspector.ExplainedExecution explainExecution(Query pagedQuery) {
+        return searchPlanInspector.explainExecution(pagedQuery);
+    }
+}
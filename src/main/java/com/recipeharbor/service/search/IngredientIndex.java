@@ -0,0 +1,364 @@
+package com.recipeharbor.service.search;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.recipeharbor.dto.SearchCriteriaDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.service.event.RecipeChangedEvent;
+import com.recipeharbor.service.event.RecipesCreatedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index answering the ingredient filters of the search.
+ * <p>
+ * A negated {@code $elemMatch} cannot use an index, so excluding ingredients makes Mongo scan every recipe
+ * matching the other filters. The index keeps a posting list of recipe ordinals per ingredient name (plus the
+ * vegetarian flag and servings) and evaluates include/exclude as bitmap OR/AND/ANDNOT; Mongo then only fetches
+ * the recipes of the requested page by id.
+ * <p>
+ * The index is loaded from the collection on startup and kept current by a change stream on the collection, which
+ * brings in the writes of every node, and by the {@link RecipeChangedEvent}s of this node, which apply its own writes
+ * before they return to the client. The changes of the stream are published as {@link RecipeChangedEvent}s as well,
+ * so the recipe, search and response caches also drop what other nodes wrote. The change stream is opened before the collection is read, the changes received
+ * while it is read are replayed on the loaded postings. While the change stream is not running (e.g. a standalone
+ * server, which has none) the index may be behind the writes of other nodes and every search goes to Mongo; with
+ * {@code recipeharbor.search.ingredient-index.change-stream=false}, for a single node on a standalone server, the
+ * events of the node are enough. The periodic rebuild reclaims the ordinals of deleted recipes and restarts a failed
+ * change stream.
+ * <p>
+ * Criteria with a text or instructions filter, which the index cannot evaluate, still go to Mongo, and so does every
+ * search until the first build has completed and every search matching a recipe the postings cannot order yet.
+ * <p>
+ * The same postings answer the pantry search, which ranks recipes by how many of their ingredients are missing
+ * from a given list.
+ */
+@Component
+@Slf4j
+public class IngredientIndex {
+
+    /** Ids of one page of matches in search order and the total number of matches. */
+    public record Hits(List<String> ids, long total) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final TaskExecutor taskExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final boolean async;
+    private final boolean changeStream;
+    private final MessageListenerContainer changeListenerContainer;
+    /** {@code null} until the change stream is first opened. */
+    private volatile Subscription changeSubscription;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    /** {@code null} until the first build has completed. Guarded by {@link #lock}. */
+    private IngredientPostings postings;
+    /** Changes made while a rebuild reads the collection, replayed on the rebuilt postings. Guarded by {@link #lock}. */
+    private List<RecipeChangedEvent> pendingEvents;
+
+    public IngredientIndex(MongoTemplate mongoTemplate,
+                           @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${recipeharbor.search.ingredient-index.enabled:true}") boolean enabled,
+                           @Value("${recipeharbor.indexes.async:true}") boolean async,
+                           @Value("${recipeharbor.search.ingredient-index.change-stream:true}") boolean changeStream) {
+        this.mongoTemplate = mongoTemplate;
+        this.taskExecutor = taskExecutor;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.async = async;
+        this.changeStream = changeStream;
+        // Reads the change stream on a thread of its own rather than holding one of the application task executor
+        this.changeListenerContainer = new DefaultMessageListenerContainer(mongoTemplate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        if (async) {
+            taskExecutor.execute(this::followChangesAndRebuild);
+        } else {
+            followChangesAndRebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recipeharbor.search.ingredient-index.rebuild-interval-millis:600000}",
+            initialDelayString = "${recipeharbor.search.ingredient-index.rebuild-interval-millis:600000}")
+    public void scheduledRebuild() {
+        if (!enabled) {
+            return;
+        }
+        if (changeStream && !isFollowingChanges()) {
+            followChangesAndRebuild();
+        } else {
+            rebuild();
+        }
+    }
+
+    @PreDestroy
+    public void stopFollowingChanges() {
+        changeListenerContainer.stop();
+    }
+
+    /**
+     * (Re)opens the change stream, then reloads the postings: no change is lost in between, the ones received while
+     * the collection is read are replayed.
+     */
+    private void followChangesAndRebuild() {
+        if (changeStream) {
+            openChangeStream();
+        }
+        rebuild();
+    }
+
+    private void openChangeStream() {
+        if (changeSubscription != null) {
+            changeListenerContainer.remove(changeSubscription);
+        }
+        if (!changeListenerContainer.isRunning()) {
+            changeListenerContainer.start();
+        }
+        ChangeStreamRequest<Recipe> request = ChangeStreamRequest.builder(this::onChange)
+                .collection(mongoTemplate.getCollectionName(Recipe.class))
+                .filter(Aggregation.newAggregation(Aggregation.match(
+                        Criteria.where("operationType").in("insert", "update", "replace", "delete"))))
+                .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+                .build();
+        changeSubscription = changeListenerContainer.register(request, Recipe.class,
+                e -> log.warn("Ingredient index change stream failed, searches go to Mongo until it is reopened", e));
+        try {
+            changeSubscription.await(Duration.ofSeconds(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!changeSubscription.isActive()) {
+            log.warn("Ingredient index change stream could not be opened, searches go to Mongo until it is. Change streams "
+                    + "need a replica set or a sharded cluster; for a single node on a standalone server set "
+                    + "recipeharbor.search.ingredient-index.change-stream=false");
+        }
+    }
+
+    private boolean isFollowingChanges() {
+        Subscription subscription = changeSubscription;
+        return subscription != null && subscription.isActive();
+    }
+
+    /**
+     * Publishes a write of any node, which this index and the caches apply through their listeners. The writes of
+     * this node were already applied by their own event, applying them again leaves the postings as they are.
+     */
+    private void onChange(Message<ChangeStreamDocument<Document>, Recipe> message) {
+        ChangeStreamDocument<Document> change = message.getRaw();
+        if (change == null || change.getDocumentKey() == null) {
+            return;
+        }
+        BsonValue id = change.getDocumentKey().get("_id");
+        String recipeId = id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+        Recipe recipe = message.getBody();
+        if (recipe != null) {
+            eventPublisher.publishEvent(RecipeChangedEvent.updated(recipe));
+        } else if ("delete".equals(change.getOperationTypeString())) {
+            eventPublisher.publishEvent(RecipeChangedEvent.deleted(recipeId));
+        }
+        // An update of a recipe deleted since has no document left to look up, its deletion follows
+    }
+
+    /**
+     * Whether the postings are loaded and follow the writes of every node.
+     */
+    private boolean isCurrent() {
+        return postings != null && (!changeStream || isFollowingChanges());
+    }
+
+    /**
+     * Reloads the postings from the collection, which also reclaims the ordinals of deleted recipes. Searches keep
+     * using the current postings while the collection is read.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingEvents = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            long start = System.nanoTime();
+            IngredientPostings rebuilt = new IngredientPostings();
+            Query query = new Query().with(Sort.by("createdAt").ascending().and(Sort.by("id").ascending()));
+            query.fields().include("vegetarian", "servings", "ingredients.name", "createdAt");
+            try (Stream<Recipe> recipes = mongoTemplate.stream(query, Recipe.class)) {
+                recipes.forEach(rebuilt::upsert);
+            }
+
+            lock.writeLock().lock();
+            try {
+                pendingEvents.forEach(event -> apply(rebuilt, event));
+                postings = rebuilt;
+            } finally {
+                pendingEvents = null;
+                lock.writeLock().unlock();
+            }
+            log.info("Ingredient index built with {} recipes and {} ingredients in {} ms, {} recipes out of order",
+                    rebuilt.recipeCount(), rebuilt.ingredientCount(), (System.nanoTime() - start) / 1_000_000,
+                    rebuilt.misplacedCount());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingEvents = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Ingredient index could not be built", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (postings != null) {
+                apply(postings, event);
+            }
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a bulk insert under a single acquisition of the lock.
+     */
+    @EventListener
+    public void onRecipesCreated(RecipesCreatedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (Recipe recipe : event.getRecipes()) {
+                if (postings != null) {
+                    postings.upsert(recipe);
+                }
+                if (pendingEvents != null) {
+                    pendingEvents.add(RecipeChangedEvent.created(recipe));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(IngredientPostings postings, RecipeChangedEvent event) {
+        if (event.getType() == RecipeChangedEvent.Type.DELETED) {
+            postings.remove(event.getRecipeId());
+        } else {
+            postings.upsert(event.getRecipe());
+        }
+    }
+
+    /**
+     * Whether the index can evaluate all of the criteria. Criteria without ingredient filters are left to the
+     * compound indexes of the collection.
+     */
+    public boolean covers(SearchCriteriaDto searchCriteriaDto) {
+        return enabled
+                && searchCriteriaDto.getText() == null
+                && searchCriteriaDto.getInstructionsText() == null
+                && (searchCriteriaDto.getIncludeIngredients() != null || searchCriteriaDto.getExcludeIngredients() != null);
+    }
+
+    /**
+     * Returns {@code limit} matches after skipping {@code offset} of them, or nothing when the index cannot answer
+     * the criteria.
+     */
+    public Optional<Hits> search(SearchCriteriaDto searchCriteriaDto, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            if (!isCurrent() || !covers(searchCriteriaDto)) {
+                return Optional.empty();
+            }
+            BitSet matches = postings.match(searchCriteriaDto);
+            if (!postings.inSearchOrder(matches)) {
+                return Optional.empty();
+            }
+            return Optional.of(new Hits(postings.idsDescending(matches, matches.length() - 1, offset, limit),
+                    matches.cardinality()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} matches ordered after the given recipe, or nothing when the index cannot answer
+     * the criteria or does not know the recipe.
+     */
+    public Optional<Hits> searchAfter(SearchCriteriaDto searchCriteriaDto, String afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer afterOrdinal = isCurrent() ? postings.ordinalOf(afterId) : null;
+            if (afterOrdinal == null || !covers(searchCriteriaDto)) {
+                return Optional.empty();
+            }
+            BitSet matches = postings.match(searchCriteriaDto);
+            if (postings.isMisplaced(afterOrdinal) || !postings.inSearchOrder(matches)) {
+                return Optional.empty();
+            }
+            return Optional.of(new Hits(postings.idsDescending(matches, afterOrdinal - 1, 0, limit),
+                    matches.cardinality()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one page of the recipes that can be cooked from the pantry with at most {@code maxMissing} other
+     * ingredients, fewest missing first, or nothing when the index is not current or cannot order the matches.
+     */
+    public Optional<Hits> searchPantry(Collection<String> pantry, int maxMissing, long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            if (!enabled || !isCurrent()) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(postings.rankByMissing(pantry, maxMissing, offset, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
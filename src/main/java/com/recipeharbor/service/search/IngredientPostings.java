@@ -0,0 +1,273 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.dto.Ingredient;
+import com.recipeharbor.dto.SearchCriteriaDto;
+import com.recipeharbor.entity.Recipe;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Posting lists of the {@link IngredientIndex}: recipe ordinals by ingredient name, by servings and for the
+ * vegetarian flag.
+ * <p>
+ * Ordinals follow the search order backwards: the recipes are loaded sorted by {@code (createdAt, id)} ascending
+ * and new recipes, usually the most recent ones, are appended. Walking a result bitmap from its highest ordinal down
+ * therefore yields the recipes in search order. An update keeps the ordinal of the recipe (its {@code createdAt} does
+ * not change), a deletion leaves an unused ordinal behind until the next rebuild.
+ * <p>
+ * A recipe appended out of that order (created on another node a little earlier than the last one appended, or
+ * first seen through an update) is marked misplaced until the next rebuild: results including it would come out in
+ * a different order than Mongo's, so they are left to Mongo. Not thread-safe, the index guards it.
+ */
+final class IngredientPostings {
+
+    private record Entry(String id, boolean vegetarian, Integer servings, String[] ingredients) {
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final OrdinalSet live = new OrdinalSet();
+    private final OrdinalSet vegetarian = new OrdinalSet();
+    private final Map<Integer, OrdinalSet> servings = new HashMap<>();
+    private final Map<String, OrdinalSet> ingredients = new HashMap<>();
+    private final BitSet misplaced = new BitSet();
+    /** Search order key of the last recipe appended in order. */
+    private LocalDateTime lastCreatedAt;
+    private String lastId;
+
+    void upsert(Recipe recipe) {
+        Integer ordinal = ordinals.get(recipe.getId());
+        if (ordinal == null) {
+            ordinal = entries.size();
+            entries.add(null);
+            ordinals.put(recipe.getId(), ordinal);
+            if (ordinal == 0 || compareSearchOrder(recipe.getCreatedAt(), recipe.getId(), lastCreatedAt, lastId) > 0) {
+                lastCreatedAt = recipe.getCreatedAt();
+                lastId = recipe.getId();
+            } else {
+                misplaced.set(ordinal);
+            }
+        } else {
+            clear(ordinal);
+        }
+        String[] names = recipe.getIngredients() == null ? new String[0] : recipe.getIngredients().stream()
+                .map(Ingredient::getName)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toArray(String[]::new);
+        entries.set(ordinal, new Entry(recipe.getId(), recipe.isVegetarian(), recipe.getServings(), names));
+
+        live.add(ordinal);
+        if (recipe.isVegetarian()) {
+            vegetarian.add(ordinal);
+        }
+        if (recipe.getServings() != null) {
+            servings.computeIfAbsent(recipe.getServings(), key -> new OrdinalSet()).add(ordinal);
+        }
+        for (String name : names) {
+            ingredients.computeIfAbsent(name, key -> new OrdinalSet()).add(ordinal);
+        }
+    }
+
+    void remove(String recipeId) {
+        Integer ordinal = ordinals.remove(recipeId);
+        if (ordinal != null) {
+            clear(ordinal);
+            entries.set(ordinal, null);
+            misplaced.clear(ordinal);
+        }
+    }
+
+    private void clear(int ordinal) {
+        Entry entry = entries.get(ordinal);
+        live.remove(ordinal);
+        vegetarian.remove(ordinal);
+        if (entry.servings() != null) {
+            servings.get(entry.servings()).remove(ordinal);
+        }
+        for (String name : entry.ingredients()) {
+            ingredients.get(name).remove(ordinal);
+        }
+    }
+
+    /**
+     * Evaluates the indexed filters of the criteria, with the same semantics as the Mongo query: any of the
+     * included ingredients, none of the excluded ones.
+     */
+    BitSet match(SearchCriteriaDto searchCriteriaDto) {
+        BitSet matches = live.toBitSet();
+        if (searchCriteriaDto.getVegetarian() != null) {
+            if (searchCriteriaDto.getVegetarian()) {
+                vegetarian.andInto(matches);
+            } else {
+                vegetarian.andNotInto(matches);
+            }
+        }
+        if (searchCriteriaDto.getServings() != null) {
+            OrdinalSet withServings = servings.get(searchCriteriaDto.getServings());
+            if (withServings == null) {
+                return new BitSet();
+            }
+            withServings.andInto(matches);
+        }
+        if (searchCriteriaDto.getIncludeIngredients() != null) {
+            BitSet anyIncluded = new BitSet();
+            for (String name : searchCriteriaDto.getIncludeIngredients()) {
+                OrdinalSet withIngredient = ingredients.get(name);
+                if (withIngredient != null) {
+                    withIngredient.orInto(anyIncluded);
+                }
+            }
+            matches.and(anyIncluded);
+        }
+        if (searchCriteriaDto.getExcludeIngredients() != null) {
+            for (String name : searchCriteriaDto.getExcludeIngredients()) {
+                OrdinalSet withIngredient = ingredients.get(name);
+                if (withIngredient != null) {
+                    withIngredient.andNotInto(matches);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Ranks the recipes that can be cooked from the pantry with at most {@code maxMissing} other ingredients by
+     * their number of missing ingredients, newest first among equals, and returns one page of them, or {@code null}
+     * when some of them cannot be ordered. Only recipes using at least one pantry ingredient are considered.
+     * <p>
+     * The candidates are the union of the posting lists of the pantry. One pass over them, newest first, counts the
+     * missing ingredients of each one and files it under that count; a bucket only keeps the ordinals a page up to
+     * {@code offset + limit} can reach and counts the rest. Memory is proportional to the page, not to the recipes.
+     */
+    IngredientIndex.Hits rankByMissing(Collection<String> pantry, int maxMissing, long offset, int limit) {
+        Set<String> pantryNames = new HashSet<>(pantry);
+        BitSet candidates = new BitSet();
+        for (String name : pantryNames) {
+            OrdinalSet withIngredient = ingredients.get(name);
+            if (withIngredient != null) {
+                withIngredient.orInto(candidates);
+            }
+        }
+
+        int kept = (int) Math.min(offset + limit, Integer.MAX_VALUE);
+        int[][] buckets = new int[maxMissing + 1][];
+        long[] bucketSizes = new long[maxMissing + 1];
+        for (int ordinal = candidates.previousSetBit(candidates.length() - 1); ordinal >= 0;
+             ordinal = candidates.previousSetBit(ordinal - 1)) {
+            String[] names = entries.get(ordinal).ingredients();
+            int missing = names.length;
+            for (String name : names) {
+                if (pantryNames.contains(name)) {
+                    missing--;
+                }
+            }
+            if (missing > maxMissing) {
+                continue;
+            }
+            if (misplaced.get(ordinal)) {
+                return null;
+            }
+            long size = bucketSizes[missing]++;
+            if (size < kept) {
+                int[] bucket = buckets[missing];
+                if (bucket == null || bucket.length == size) {
+                    bucket = buckets[missing] = Arrays.copyOf(bucket == null ? new int[0] : bucket,
+                            (int) Math.min(Math.max(16, size * 2), kept));
+                }
+                bucket[(int) size] = ordinal;
+            }
+        }
+
+        List<String> ids = new ArrayList<>(Math.min(limit, 1024));
+        long skip = offset;
+        long total = 0;
+        for (int missing = 0; missing <= maxMissing; missing++) {
+            total += bucketSizes[missing];
+            long from = Math.min(skip, bucketSizes[missing]);
+            skip -= from;
+            long to = Math.min(bucketSizes[missing], kept);
+            for (long i = from; i < to && ids.size() < limit; i++) {
+                ids.add(entries.get(buckets[missing][(int) i]).id());
+            }
+        }
+        return new IngredientIndex.Hits(ids, total);
+    }
+
+    /**
+     * Whether walking the matches by ordinal yields them in search order, i.e. none of them is misplaced.
+     */
+    boolean inSearchOrder(BitSet matches) {
+        return !misplaced.intersects(matches);
+    }
+
+    boolean isMisplaced(int ordinal) {
+        return misplaced.get(ordinal);
+    }
+
+    /**
+     * Ids of the matches in search order, starting below {@code fromOrdinal} and skipping the first {@code skip}.
+     */
+    List<String> idsDescending(BitSet matches, int fromOrdinal, long skip, int limit) {
+        List<String> ids = new ArrayList<>(Math.min(limit, 1024));
+        for (int ordinal = matches.previousSetBit(fromOrdinal); ordinal >= 0 && ids.size() < limit;
+             ordinal = matches.previousSetBit(ordinal - 1)) {
+            if (skip > 0) {
+                skip--;
+            } else {
+                ids.add(entries.get(ordinal).id());
+            }
+        }
+        return ids;
+    }
+
+    Integer ordinalOf(String recipeId) {
+        return ordinals.get(recipeId);
+    }
+
+    int recipeCount() {
+        return ordinals.size();
+    }
+
+    int ingredientCount() {
+        return ingredients.size();
+    }
+
+    int misplacedCount() {
+        return misplaced.cardinality();
+    }
+
+    /**
+     * Compares two recipes in ascending search order, as Mongo sorts them: by {@code createdAt} to the millisecond
+     * it stores, recipes without one first, then by id, where string ids sort before ObjectIds.
+     */
+    static int compareSearchOrder(LocalDateTime createdAt, String id, LocalDateTime otherCreatedAt, String otherId) {
+        if (createdAt == null || otherCreatedAt == null) {
+            if (createdAt != otherCreatedAt) {
+                return createdAt == null ? -1 : 1;
+            }
+        } else {
+            int byCreatedAt = createdAt.truncatedTo(ChronoUnit.MILLIS).compareTo(otherCreatedAt.truncatedTo(ChronoUnit.MILLIS));
+            if (byCreatedAt != 0) {
+                return byCreatedAt;
+            }
+        }
+        boolean isObjectId = ObjectId.isValid(id);
+        if (isObjectId != ObjectId.isValid(otherId)) {
+            return isObjectId ? 1 : -1;
+        }
+        return isObjectId ? new ObjectId(id).compareTo(new ObjectId(otherId)) : id.compareTo(otherId);
+    }
+}
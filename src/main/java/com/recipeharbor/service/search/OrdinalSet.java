@@ -0,0 +1,103 @@
+package com.recipeharbor.service.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Set of recipe ordinals backing one posting list of the {@link IngredientIndex}.
+ * <p>
+ * Small sets are kept as a sorted {@code int} array and switch to a bitmap once they hold more than
+ * {@value #ARRAY_LIMIT} ordinals, the same array/bitmap container split a Roaring bitmap makes: rare ingredients
+ * cost a few bytes while common ones cost one bit per recipe. Not thread-safe, the index guards it.
+ */
+final class OrdinalSet {
+
+    static final int ARRAY_LIMIT = 4096;
+
+    private int[] array = new int[4];
+    private int size;
+    private BitSet bitmap;
+
+    void add(int ordinal) {
+        if (bitmap != null) {
+            bitmap.set(ordinal);
+            return;
+        }
+        // Ordinals are mostly handed out in increasing order, so appending is the common case
+        int index = size == 0 || array[size - 1] < ordinal ? -(size + 1) : Arrays.binarySearch(array, 0, size, ordinal);
+        if (index >= 0) {
+            return;
+        }
+        if (size == ARRAY_LIMIT) {
+            bitmap = toBitSet();
+            bitmap.set(ordinal);
+            array = null;
+            size = 0;
+            return;
+        }
+        int insertAt = -(index + 1);
+        if (size == array.length) {
+            array = Arrays.copyOf(array, Math.min(size * 2, ARRAY_LIMIT));
+        }
+        System.arraycopy(array, insertAt, array, insertAt + 1, size - insertAt);
+        array[insertAt] = ordinal;
+        size++;
+    }
+
+    void remove(int ordinal) {
+        if (bitmap != null) {
+            bitmap.clear(ordinal);
+            return;
+        }
+        int index = Arrays.binarySearch(array, 0, size, ordinal);
+        if (index >= 0) {
+            System.arraycopy(array, index + 1, array, index, size - index - 1);
+            size--;
+        }
+    }
+
+    boolean contains(int ordinal) {
+        return bitmap != null ? bitmap.get(ordinal) : Arrays.binarySearch(array, 0, size, ordinal) >= 0;
+    }
+
+    int cardinality() {
+        return bitmap != null ? bitmap.cardinality() : size;
+    }
+
+    boolean isBitmap() {
+        return bitmap != null;
+    }
+
+    /** {@code target |= this} */
+    void orInto(BitSet target) {
+        if (bitmap != null) {
+            target.or(bitmap);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            target.set(array[i]);
+        }
+    }
+
+    /** {@code target &= this} */
+    void andInto(BitSet target) {
+        target.and(bitmap != null ? bitmap : toBitSet());
+    }
+
+    /** {@code target &= ~this} */
+    void andNotInto(BitSet target) {
+        if (bitmap != null) {
+            target.andNot(bitmap);
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            target.clear(array[i]);
+        }
+    }
+
+    BitSet toBitSet() {
+        BitSet bitSet = new BitSet();
+        orInto(bitSet);
+        return bitSet;
+    }
+}
@@ -0,0 +1,63 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.entity.Recipe;
+import org.bson.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Pantry search evaluated by Mongo, used while the {@link IngredientIndex} is not available:
+ * <pre>
+ * [ { $match: { "ingredients.name": { $in: pantry } } },
+ *   { $addFields: { missingCount: { $size: { $setDifference: [ "$ingredients.name", pantry ] } } } },
+ *   { $match: { missingCount: { $lte: maxMissing } } },
+ *   { $facet: { page:  [ { $sort: { missingCount: 1, createdAt: -1, _id: -1 } }, { $skip }, { $limit } ],
+ *               total: [ { $count: "count" } ] } } ]
+ * </pre>
+ * The first stage uses the ingredient index of the collection, the missing ingredients are then computed for
+ * every recipe using any of the pantry ingredients.
+ */
+@Component
+public class PantryAggregation {
+
+    private final MongoTemplate mongoTemplate;
+
+    public PantryAggregation(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Page<Recipe> findPage(List<String> pantry, int maxMissing, Pageable pageable) {
+        // $literal keeps pantry entries starting with '$' from being read as field paths
+        Document pantryLiteral = new Document("$literal", pantry);
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("ingredients.name", new Document("$in", pantry))),
+                new Document("$addFields", new Document("missingCount", new Document("$size",
+                        new Document("$setDifference", List.of("$ingredients.name", pantryLiteral))))),
+                new Document("$match", new Document("missingCount", new Document("$lte", maxMissing))),
+                new Document("$facet", new Document("page", List.of(
+                        new Document("$sort", new Document("missingCount", 1).append("createdAt", -1).append("_id", -1)),
+                        new Document("$skip", pageable.getOffset()),
+                        new Document("$limit", pageable.getPageSize())))
+                        .append("total", List.of(new Document("$count", "count")))));
+
+        Document result = mongoTemplate.execute(Recipe.class, collection -> collection.aggregate(pipeline).first());
+        if (result == null) {
+            // No document at all is only returned when the collection does not exist yet
+            return Page.empty(pageable);
+        }
+
+        MongoConverter converter = mongoTemplate.getConverter();
+        List<Recipe> recipes = result.getList("page", Document.class).stream()
+                .map(document -> converter.read(Recipe.class, document))
+                .toList();
+        List<Document> total = result.getList("total", Document.class);
+        long count = total.isEmpty() ? 0 : ((Number) total.get(0).get("count")).longValue();
+        return PageableExecutionUtils.getPage(recipes, pageable, () -> count);
+    }
+}
@@ -0,0 +1,28 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.index.SearchPlanInspector;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Strategy used by the search service to fetch a page of matching recipes together with the exact total.
+ * The implementation is picked with the {@code recipeharbor.search.executor} property.
+ */
+public interface RecipeSearchExecutor {
+
+    /**
+     * @param query    unpaged search query, it may be modified by the executor
+     * @param pageable the requested page, including its sort order
+     * @return the recipes of the requested page and the total number of matches
+     */
+    Page<Recipe> findPage(Query query, Pageable pageable);
+
+    /**
+     * Executes the command {@link #findPage} runs for the page of the query under explain, for the search metrics.
+     *
+     * @param pagedQuery the search query with the page applied, it is not modified
+     */
+    SearchPlanInspector.ExplainedExecution explainExecution(Query pagedQuery);
+}
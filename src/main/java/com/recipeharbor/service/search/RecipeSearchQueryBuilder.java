@@ -0,0 +1,71 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.dto.SearchCriteriaDto;
+import com.recipeharbor.entity.Recipe;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Component;
+
+/**
+ * Translates the search criteria of the search API into a Mongo query.
+ */
+@Component
+public class RecipeSearchQueryBuilder {
+
+    /** Order of the search results, the id breaks ties between recipes created in the same millisecond. */
+    public static final Sort SEARCH_ORDER = Sort.by("createdAt").descending().and(Sort.by("id").descending());
+
+    /**
+     * Builds the (unpaged) query for the given search criteria. When a full-text query is present the
+     * search goes through the collection's text index with a {@code $text} match and the relevance score
+     * is projected into {@link Recipe#getScore()}; the remaining filters are added on top of it.
+     * A cursor, when given, restricts the matches to the recipes ordered after it.
+     */
+    public Query build(SearchCriteriaDto searchCriteriaDto, SearchCursor after) {
+
+        Criteria criteria = new Criteria();
+
+        if(searchCriteriaDto.getVegetarian()!=null){
+            criteria.and("vegetarian").is(searchCriteriaDto.getVegetarian());
+        }
+        if(searchCriteriaDto.getServings()!=null){
+            criteria.and("servings").is(searchCriteriaDto.getServings());
+        }
+        Criteria include = searchCriteriaDto.getIncludeIngredients()==null ? null
+                : Criteria.where("ingredients").elemMatch(Criteria.where("name").in(searchCriteriaDto.getIncludeIngredients()));
+        Criteria exclude = searchCriteriaDto.getExcludeIngredients()==null ? null
+                : Criteria.where("ingredients").not().elemMatch(Criteria.where("name").in(searchCriteriaDto.getExcludeIngredients()));
+        if(include!=null && exclude!=null){
+            // A field appears once in a query document, so both ingredient filters go through $and
+            criteria.andOperator(include, exclude);
+        } else if(include!=null){
+            criteria.and("ingredients").elemMatch(Criteria.where("name").in(searchCriteriaDto.getIncludeIngredients()));
+        } else if(exclude!=null){
+            criteria.and("ingredients").not().elemMatch(Criteria.where("name").in(searchCriteriaDto.getExcludeIngredients()));
+        }
+        if(searchCriteriaDto.getInstructionsText()!=null){
+            String regex = searchCriteriaDto.getInstructionsText();
+            criteria.and("instructions").elemMatch(Criteria.where("description").regex(regex, "i"));
+        }
+        if(after!=null){
+            after.applyTo(criteria);
+        }
+
+        if(searchCriteriaDto.getText()==null){
+            return new Query(criteria);
+        }
+
+        TextQuery textQuery = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(searchCriteriaDto.getText()));
+        textQuery.includeScore();
+        if(Boolean.TRUE.equals(searchCriteriaDto.getSortByRelevance())){
+            textQuery.sortByScore();
+        }
+        if(!criteria.getCriteriaObject().isEmpty()){
+            textQuery.addCriteria(criteria);
+        }
+        return textQuery;
+    }
+}
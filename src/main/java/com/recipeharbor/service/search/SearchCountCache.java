@@ -0,0 +1,53 @@
+package com.recipeharbor.service.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of estimated search totals keyed on the normalized search criteria.
+ * <p>
+ * Entries expire after the configured TTL; once the cache is full, expired entries are purged and, if that
+ * is not enough, the cache starts over. Estimated counts are allowed to be slightly stale, so writes do not
+ * invalidate entries.
+ */
+@Component
+public class SearchCountCache {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Map<SearchCriteriaKey, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public SearchCountCache(@Value("${recipeharbor.search.estimated-count.ttl-millis:30000}") long ttlMillis,
+                            @Value("${recipeharbor.search.estimated-count.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached count for the criteria, computing and caching it with the given counter when it
+     * is missing or expired.
+     */
+    public long get(SearchCriteriaKey key, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.count;
+        }
+        long count = counter.getAsLong();
+        if (counts.size() >= maxEntries) {
+            counts.values().removeIf(entry -> entry.expiresAt <= now);
+            if (counts.size() >= maxEntries) {
+                counts.clear();
+            }
+        }
+        counts.put(key, new CachedCount(count, now + ttlMillis));
+        return count;
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
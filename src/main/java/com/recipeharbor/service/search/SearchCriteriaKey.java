@@ -0,0 +1,53 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.dto.SearchCriteriaDto;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Canonical, immutable form of a {@link SearchCriteriaDto} used as a cache key, so that requests which
+ * only differ in the order or duplication of their ingredient lists or in the casing of the full-text
+ * query share one entry.
+ * <p>
+ * Ingredient names and {@code instructionsText} keep their case: ingredients are matched exactly by
+ * Mongo, and lowercasing a regular expression could change its meaning ({@code \S} vs {@code \s}).
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class SearchCriteriaKey {
+
+    private final Boolean vegetarian;
+    private final Integer servings;
+    private final List<String> includeIngredients;
+    private final List<String> excludeIngredients;
+    private final String instructionsText;
+    private final String text;
+    private final boolean sortByRelevance;
+
+    private SearchCriteriaKey(SearchCriteriaDto searchCriteriaDto) {
+        this.vegetarian = searchCriteriaDto.getVegetarian();
+        this.servings = searchCriteriaDto.getServings();
+        this.includeIngredients = canonical(searchCriteriaDto.getIncludeIngredients());
+        this.excludeIngredients = canonical(searchCriteriaDto.getExcludeIngredients());
+        this.instructionsText = searchCriteriaDto.getInstructionsText();
+        this.text = searchCriteriaDto.getText() == null ? null
+                : searchCriteriaDto.getText().trim().toLowerCase(Locale.ROOT);
+        this.sortByRelevance = this.text != null && Boolean.TRUE.equals(searchCriteriaDto.getSortByRelevance());
+    }
+
+    public static SearchCriteriaKey of(SearchCriteriaDto searchCriteriaDto) {
+        return new SearchCriteriaKey(searchCriteriaDto);
+    }
+
+    private static List<String> canonical(List<String> ingredients) {
+        if (ingredients == null) {
+            return null;
+        }
+        return ingredients.stream().map(String::trim).distinct().sorted().toList();
+    }
+}
@@ -0,0 +1,83 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.exception.InvalidSearchRequestException;
+import lombok.Getter;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Continuation token for keyset pagination over the search results.
+ * <p>
+ * Search results are ordered by {@code createdAt} descending with the id as tie-breaker, so the position
+ * after the last recipe of a page is fully described by its {@code (createdAt, id)} pair. The token is the
+ * base64url encoding of that pair and is opaque to clients.
+ */
+@Getter
+public final class SearchCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime createdAt;
+    private final String id;
+
+    public SearchCursor(LocalDateTime createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static SearchCursor after(Recipe recipe) {
+        return new SearchCursor(recipe.getCreatedAt(), recipe.getId());
+    }
+
+    /**
+     * Decodes a token previously produced by {@link #encode()}.
+     *
+     * @return the decoded cursor, or {@code null} for a blank token (first page)
+     * @throws InvalidSearchRequestException if the token is malformed
+     */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0 || separator == decoded.length() - 1) {
+                throw new InvalidSearchRequestException("Invalid search cursor '" + token + "'");
+            }
+            String createdAt = decoded.substring(0, separator);
+            return new SearchCursor(createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt),
+                    decoded.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidSearchRequestException("Invalid search cursor '" + token + "'");
+        }
+    }
+
+    public String encode() {
+        String raw = (createdAt == null ? "" : createdAt.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Adds the range predicate that resumes the {@code createdAt desc, id desc} ordering right after this
+     * cursor to the given criteria. Recipes without a creation date sort last, so they stay reachable from
+     * every dated cursor.
+     */
+    public void applyTo(Criteria criteria) {
+        Object idValue = ObjectId.isValid(id) ? new ObjectId(id) : id;
+        if (createdAt == null) {
+            criteria.and("createdAt").is(null).and("_id").lt(idValue);
+            return;
+        }
+        criteria.orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and("_id").lt(idValue),
+                Criteria.where("createdAt").is(null));
+    }
+}
@@ -0,0 +1,176 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.dto.SlowSearchDto;
+import com.recipeharbor.index.SearchPlanInspector;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Instruments the searches by {@link SearchShape}: their latency goes into the {@value #TIMER} timer, tagged with the
+ * shape and whether the ingredient index or Mongo answered, and published as a percentile histogram.
+ * <p>
+ * What a query costs Mongo is only known from an explain, which executes it a second time. So a sample of the queries
+ * ({@code recipeharbor.search.explain.sample-rate}) and every query slower than
+ * {@code recipeharbor.search.slow-log.threshold-millis} are explained in the background, at most
+ * {@code max-concurrent} at a time (the others are not explained), as the command the search ran: a {@code find}, or
+ * the aggregation of the facet executor. The explains record the documents examined per
+ * document returned into {@value #DOCS_EXAMINED_RATIO}, and the slow queries are kept with their plan in a ring buffer
+ * of the last {@code recipeharbor.search.slow-log.size} ones.
+ */
+@Component
+@Slf4j
+public class SearchMetrics {
+
+    static final String TIMER = "recipeharbor.search";
+    static final String DOCS_EXAMINED_RATIO = "recipeharbor.search.docs.examined.ratio";
+
+    private final MeterRegistry meterRegistry;
+    private final SearchPlanInspector searchPlanInspector;
+    private final TaskExecutor taskExecutor;
+    private final long slowThresholdNanos;
+    private final double explainSampleRate;
+    private final int maxConcurrentExplains;
+    private final SlowSearchLog slowSearchLog;
+    private final AtomicInteger runningExplains = new AtomicInteger();
+    private final Map<SearchShape, Timer> indexTimers = new ConcurrentHashMap<>();
+    private final Map<SearchShape, Timer> mongoTimers = new ConcurrentHashMap<>();
+    private final Map<SearchShape, DistributionSummary> docsExaminedRatios = new ConcurrentHashMap<>();
+
+    public SearchMetrics(MeterRegistry meterRegistry,
+                         SearchPlanInspector searchPlanInspector,
+                         @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                         @Value("${recipeharbor.search.slow-log.threshold-millis:500}") long slowThresholdMillis,
+                         @Value("${recipeharbor.search.slow-log.size:100}") int slowLogSize,
+                         @Value("${recipeharbor.search.explain.sample-rate:0.01}") double explainSampleRate,
+                         @Value("${recipeharbor.search.explain.max-concurrent:2}") int maxConcurrentExplains) {
+        this.meterRegistry = meterRegistry;
+        this.searchPlanInspector = searchPlanInspector;
+        this.taskExecutor = taskExecutor;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.explainSampleRate = explainSampleRate;
+        this.maxConcurrentExplains = maxConcurrentExplains;
+        this.slowSearchLog = new SlowSearchLog(slowLogSize);
+    }
+
+    /**
+     * Records a search answered by the ingredient index, started at {@code startNanos} of {@link System#nanoTime()}.
+     */
+    public void recordIndexSearch(SearchShape shape, long startNanos) {
+        timer(indexTimers, shape, "ingredient-index").record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a search answered by Mongo, started at {@code startNanos} of {@link System#nanoTime()}, and explains its
+     * query, as a {@code find}, when it is slow or sampled. The query must not be changed afterwards.
+     */
+    public void recordQuery(SearchShape shape, long startNanos, Query query) {
+        recordQuery(shape, startNanos, query, () -> searchPlanInspector.explainExecution(query));
+    }
+
+    /**
+     * Records a search answered by Mongo with another command than a {@code find} of its query, e.g. the aggregation
+     * of the facet executor, which {@code explain} executes under explain.
+     */
+    public void recordQuery(SearchShape shape, long startNanos, Query query,
+                            Supplier<SearchPlanInspector.ExplainedExecution> explain) {
+        long durationNanos = System.nanoTime() - startNanos;
+        timer(mongoTimers, shape, "mongo").record(durationNanos, TimeUnit.NANOSECONDS);
+
+        boolean slow = durationNanos >= slowThresholdNanos;
+        if (!slow && ThreadLocalRandom.current().nextDouble() >= explainSampleRate) {
+            return;
+        }
+        if (runningExplains.incrementAndGet() > maxConcurrentExplains) {
+            runningExplains.decrementAndGet();
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    explain(shape, query, explain, slow ? durationNanos : -1);
+                } finally {
+                    runningExplains.decrementAndGet();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            runningExplains.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the slow searches kept in the ring buffer, newest first
+     */
+    public List<SlowSearchDto> getSlowSearches() {
+        return slowSearchLog.newestFirst();
+    }
+
+    private void explain(SearchShape shape, Query query, Supplier<SearchPlanInspector.ExplainedExecution> explain,
+                         long slowDurationNanos) {
+        SearchPlanInspector.ExplainedExecution execution;
+        try {
+            execution = explain.get();
+        } catch (RuntimeException e) {
+            log.warn("Could not explain a search of shape {}", shape.getName(), e);
+            return;
+        }
+
+        docsExaminedRatios.computeIfAbsent(shape, s -> DistributionSummary.builder(DOCS_EXAMINED_RATIO)
+                        .description("Documents examined by Mongo per document returned, of the explained searches")
+                        .tag("shape", s.getName())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record((double) execution.docsExamined() / Math.max(execution.returned(), 1));
+
+        if (slowDurationNanos >= 0) {
+            log.warn("Slow search of shape {} took {} ms, plan {}", shape.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(slowDurationNanos), execution.stages());
+            slowSearchLog.add(SlowSearchDto.builder()
+                    .timestamp(LocalDateTime.now())
+                    .fields(shape.getFields())
+                    .durationMillis(TimeUnit.NANOSECONDS.toMillis(slowDurationNanos))
+                    .query(SerializationUtils.serializeToJsonSafely(query.getQueryObject()))
+                    .stages(execution.stages())
+                    .indexes(execution.indexes())
+                    .collectionScan(execution.isCollectionScan())
+                    .inMemorySort(execution.isInMemorySort())
+                    .keysExamined(execution.keysExamined())
+                    .docsExamined(execution.docsExamined())
+                    .returned(execution.returned())
+                    .build());
+        }
+    }
+
+    private Timer timer(Map<SearchShape, Timer> timers, SearchShape shape, String source) {
+        Timer timer = timers.get(shape);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(shape, s -> Timer.builder(TIMER)
+                    .description("Latency of the searches by the criteria fields they set")
+                    .tag("shape", s.getName())
+                    .tag("source", source)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry));
+        }
+        return timer;
+    }
+}
@@ -0,0 +1,56 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.cache.BoundedCache;
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.service.event.RecipeChangedEvent;
+import com.recipeharbor.service.event.RecipesCreatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Cache of search result pages keyed on {@link SearchResultKey}.
+ * <p>
+ * Invalidation is coarse: any recipe write clears the whole cache. Popular searches are dominated by a few
+ * dozen filter combinations and writes are rare in comparison, so they are repopulated quickly, while a
+ * fine-grained invalidation would have to evaluate every cached predicate against the written recipe.
+ * Clearing goes through {@link BoundedCache#invalidateAll()}, so a search that was running during the write
+ * does not install its possibly outdated page either.
+ */
+@Component
+public class SearchResultCache {
+
+    private final BoundedCache<SearchResultKey, Slice<RecipeDto>> searchCache;
+    private final boolean enabled;
+
+    public SearchResultCache(BoundedCache<SearchResultKey, Slice<RecipeDto>> searchCache,
+                             @Value("${recipeharbor.cache.search.enabled:true}") boolean enabled) {
+        this.searchCache = searchCache;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the cached page for the key, running the search on a miss. The key determines the type of the
+     * page, a key of a page request always maps to the same kind of result.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Slice<RecipeDto>> T get(SearchResultKey key, Supplier<T> search) {
+        if (!enabled) {
+            return search.get();
+        }
+        return (T) searchCache.get(key, k -> search.get());
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        searchCache.invalidateAll();
+    }
+
+    @EventListener
+    public void onRecipesCreated(RecipesCreatedEvent event) {
+        searchCache.invalidateAll();
+    }
+}
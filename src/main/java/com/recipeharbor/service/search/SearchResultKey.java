@@ -0,0 +1,24 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.dto.SearchCriteriaDto;
+import com.recipeharbor.service.RecipeFields;
+
+/**
+ * Cache key of a page of search results: the canonical criteria plus everything that selects the page.
+ *
+ * @param countMode the count mode of a page request, {@code null} for a cursor request
+ * @param cursor    the cursor of a cursor request, {@code null} for a page request
+ * @param fields    the recipe fields read, a page with some of them cannot answer a request for others
+ */
+public record SearchResultKey(SearchCriteriaKey criteria, CountMode countMode, int page, int size, String cursor,
+                              RecipeFields fields) {
+
+    public static SearchResultKey page(SearchCriteriaDto searchCriteriaDto, int page, int size, CountMode countMode,
+                                       RecipeFields fields) {
+        return new SearchResultKey(SearchCriteriaKey.of(searchCriteriaDto), countMode, page, size, null, fields);
+    }
+
+    public static SearchResultKey cursor(SearchCriteriaDto searchCriteriaDto, String cursor, int size, RecipeFields fields) {
+        return new SearchResultKey(SearchCriteriaKey.of(searchCriteriaDto), null, 0, size, cursor, fields);
+    }
+}
@@ -0,0 +1,89 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.dto.SearchCriteriaDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The shape of a search: which {@link SearchCriteriaDto} filters are set, regardless of their values.
+ * Searches of the same shape produce the same query structure and therefore the same query plan.
+ */
+public final class SearchShape {
+
+    private static final String[] FIELDS = {
+            "vegetarian", "servings", "includeIngredients", "excludeIngredients", "instructionsText", "text"
+    };
+
+    private static final SearchShape[] SHAPES = new SearchShape[1 << FIELDS.length];
+
+    static {
+        for (int mask = 0; mask < SHAPES.length; mask++) {
+            SHAPES[mask] = new SearchShape(mask);
+        }
+    }
+
+    private final int mask;
+    private final List<String> fields;
+    private final String name;
+
+    private SearchShape(int mask) {
+        this.mask = mask;
+        List<String> setFields = new ArrayList<>();
+        for (int i = 0; i < FIELDS.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                setFields.add(FIELDS[i]);
+            }
+        }
+        this.fields = Collections.unmodifiableList(setFields);
+        this.name = setFields.isEmpty() ? "none" : String.join("+", setFields);
+    }
+
+    public static SearchShape of(SearchCriteriaDto searchCriteriaDto) {
+        int mask = 0;
+        if (searchCriteriaDto.getVegetarian() != null) mask |= 1;
+        if (searchCriteriaDto.getServings() != null) mask |= 1 << 1;
+        if (searchCriteriaDto.getIncludeIngredients() != null) mask |= 1 << 2;
+        if (searchCriteriaDto.getExcludeIngredients() != null) mask |= 1 << 3;
+        if (searchCriteriaDto.getInstructionsText() != null) mask |= 1 << 4;
+        if (searchCriteriaDto.getText() != null) mask |= 1 << 5;
+        return SHAPES[mask];
+    }
+
+    /**
+     * Every shape the search API accepts: at least one filter.
+     */
+    public static List<SearchShape> all() {
+        return List.of(SHAPES).subList(1, SHAPES.length);
+    }
+
+    /** Criteria of this shape with placeholder values, used to inspect the query plan of the shape. */
+    public SearchCriteriaDto sampleCriteria() {
+        return SearchCriteriaDto.builder()
+                .vegetarian(has(0) ? Boolean.TRUE : null)
+                .servings(has(1) ? 2 : null)
+                .includeIngredients(has(2) ? List.of("Onions") : null)
+                .excludeIngredients(has(3) ? List.of("Garlic") : null)
+                .instructionsText(has(4) ? "boil" : null)
+                .text(has(5) ? "boil" : null)
+                .build();
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private boolean has(int field) {
+        return (mask & (1 << field)) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
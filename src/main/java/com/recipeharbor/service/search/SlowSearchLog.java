@@ -0,0 +1,37 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.dto.SlowSearchDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ring buffer of the last slow searches: once full, every new entry overwrites the oldest one.
+ */
+final class SlowSearchLog {
+
+    private final SlowSearchDto[] entries;
+    private int next;
+    private int size;
+
+    SlowSearchLog(int capacity) {
+        this.entries = new SlowSearchDto[Math.max(capacity, 0)];
+    }
+
+    synchronized void add(SlowSearchDto slowSearch) {
+        if (entries.length == 0) {
+            return;
+        }
+        entries[next] = slowSearch;
+        next = (next + 1) % entries.length;
+        size = Math.min(size + 1, entries.length);
+    }
+
+    synchronized List<SlowSearchDto> newestFirst() {
+        List<SlowSearchDto> slowSearches = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            slowSearches.add(entries[(next - i + entries.length) % entries.length]);
+        }
+        return slowSearches;
+    }
+}
@@ -0,0 +1,73 @@
+package com.recipeharbor.startup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Named leases kept in the {@value #COLLECTION} collection, one document {@code {_id, owner, expiresAt}} per lease,
+ * so that a piece of work shared by all the nodes is done by one of them at a time.
+ * <p>
+ * Acquiring is a single upsert that only matches a lease which is expired or already held by this node: when another
+ * node holds it, the upsert tries to insert a second document with the same {@code _id} and fails on the unique
+ * index. A node that dies keeps its lease until it expires, so the holder renews it for longer than its work takes
+ * between two renewals. Expiry is compared against the clock of the acquiring node, the ttl has to cover the clock
+ * skew between the nodes.
+ */
+@Component
+public class MongoLease {
+
+    static final String COLLECTION = "leases";
+
+    private final MongoTemplate mongoTemplate;
+    private final String owner;
+
+    @Autowired
+    public MongoLease(MongoTemplate mongoTemplate) {
+        this(mongoTemplate, System.getenv().getOrDefault("HOSTNAME", "node") + "-" + UUID.randomUUID());
+    }
+
+    MongoLease(MongoTemplate mongoTemplate, String owner) {
+        this.mongoTemplate = mongoTemplate;
+        this.owner = owner;
+    }
+
+    /**
+     * Acquires the lease, or extends it when this node already holds it.
+     *
+     * @return {@code false} when another node holds the lease
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        Date now = new Date();
+        Query query = Query.query(Criteria.where("_id").is(name)
+                .orOperator(Criteria.where("expiresAt").lt(now), Criteria.where("owner").is(owner)));
+        Update update = new Update()
+                .set("owner", owner)
+                .set("expiresAt", new Date(now.getTime() + ttl.toMillis()));
+        try {
+            mongoTemplate.upsert(query, update, COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gives the lease up if this node still holds it, so that the next node does not have to wait for it to expire.
+     */
+    public void release(String name) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(name).and("owner").is(owner)), COLLECTION);
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+}
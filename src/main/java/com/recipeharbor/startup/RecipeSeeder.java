@@ -0,0 +1,176 @@
+package com.recipeharbor.startup;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.service.event.RecipesCreatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Loads the seed recipes into an empty collection.
+ * <p>
+ * The seed file, a JSON array of recipes, is read one recipe at a time and written in unordered bulk batches, so
+ * memory does not grow with the size of the seed. A seed recipe without an id gets one derived from its position in
+ * the file: a seed interrupted half-way is resumed by loading the file again, the recipes already written being
+ * rejected as duplicates. The progress is kept in the {@value #COLLECTION} collection, one document per seed file,
+ * and a completed seed is never loaded again, even once its recipes have been deleted. A collection that already
+ * holds recipes when no seed was ever started is left as it is.
+ */
+@Component
+@Slf4j
+public class RecipeSeeder {
+
+    static final String COLLECTION = "seeds";
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final Resource resource;
+    private final int batchSize;
+
+    public RecipeSeeder(MongoTemplate mongoTemplate,
+                        ObjectMapper objectMapper,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${recipeharbor.startup.seed.enabled:true}") boolean enabled,
+                        @Value("${recipeharbor.startup.seed.resource:classpath:data.json}") Resource resource,
+                        @Value("${recipeharbor.startup.seed.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.resource = resource;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Loads the seed unless it was loaded already.
+     *
+     * @param heartbeat run after every batch, e.g. to renew the lease the seed is loaded under
+     * @return the number of recipes written by this call
+     */
+    public long seed(Runnable heartbeat) throws IOException {
+        if (!enabled) {
+            return 0;
+        }
+        String seedId = resource.getFilename();
+        Query bySeedId = Query.query(Criteria.where("_id").is(seedId));
+        Document progress = mongoTemplate.findOne(bySeedId, Document.class, COLLECTION);
+        if (progress != null && progress.get("completedAt") != null) {
+            log.info("Seed {} already loaded", seedId);
+            return 0;
+        }
+        if (progress == null && mongoTemplate.exists(new Query(), Recipe.class)) {
+            log.info("Recipes collection not empty, seed {} not loaded", seedId);
+            mongoTemplate.upsert(bySeedId, new Update().set("completedAt", new Date()).set("recipes", 0L), COLLECTION);
+            return 0;
+        }
+        mongoTemplate.upsert(bySeedId, new Update().setOnInsert("startedAt", new Date()), COLLECTION);
+
+        long start = System.nanoTime();
+        long read = 0;
+        long written = 0;
+        try (InputStream inputStream = resource.getInputStream(); JsonParser parser = objectMapper.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Seed " + seedId + " is not a JSON array of recipes");
+            }
+            List<Recipe> batch = new ArrayList<>(batchSize);
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                Recipe recipe = objectMapper.readValue(parser, Recipe.class);
+                if (recipe.getId() == null) {
+                    recipe.setId(seedRecipeId(read));
+                }
+                read++;
+                batch.add(recipe);
+                if (batch.size() >= batchSize) {
+                    written += insert(batch);
+                    batch = new ArrayList<>(batchSize);
+                    heartbeat.run();
+                }
+            }
+            // Anything but the end of the array, a null or a truncated file, leaves the seed to be resumed rather than
+            // recording a partial load as complete
+            if (token != JsonToken.END_ARRAY) {
+                throw new IOException("Seed " + seedId + " holds " + token + " instead of recipe " + (read + 1));
+            }
+            written += insert(batch);
+        }
+
+        mongoTemplate.upsert(bySeedId, new Update().set("completedAt", new Date()).set("recipes", read), COLLECTION);
+        log.info("Seed {} loaded in {} ms: {} recipes written, {} already there", seedId,
+                (System.nanoTime() - start) / 1_000_000, written, read - written);
+        return written;
+    }
+
+    /**
+     * Inserts the recipes, skipping the ones already written by an earlier attempt, and publishes one
+     * {@link RecipesCreatedEvent} with the ones written.
+     *
+     * @return the number of recipes written
+     */
+    private long insert(List<Recipe> recipes) {
+        if (recipes.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Recipe recipe : recipes) {
+            recipe.setCreatedAt(now);
+            recipe.setUpdatedAt(now);
+            recipe.setVersion(0L);
+        }
+
+        Set<Integer> duplicates = Set.of();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class).insert(recipes).execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY_ERROR)) {
+                throw e;
+            }
+            duplicates = e.getErrors().stream().map(BulkWriteError::getIndex).collect(Collectors.toSet());
+        }
+        List<Recipe> written = new ArrayList<>(recipes.size() - duplicates.size());
+        for (int i = 0; i < recipes.size(); i++) {
+            if (!duplicates.contains(i)) {
+                written.add(recipes.get(i));
+            }
+        }
+        if (!written.isEmpty()) {
+            eventPublisher.publishEvent(new RecipesCreatedEvent(written));
+        }
+        return written.size();
+    }
+
+    /**
+     * The same ObjectId on every attempt for the recipe at a position of the seed file, where the driver would fill
+     * in the current time and random bytes.
+     */
+    static String seedRecipeId(long position) {
+        return new ObjectId(ByteBuffer.allocate(12).putInt(0).putLong(position).flip()).toHexString();
+    }
+}
@@ -0,0 +1,34 @@
+package com.recipeharbor.startup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code startup} health component: the progress of the {@link StartupTasks} of this node. It is not part of the
+ * liveness or readiness groups, a node serves requests while the seed loads and the indexes build, and is only down
+ * when the tasks failed.
+ */
+@Component
+public class StartupHealthIndicator implements HealthIndicator {
+
+    private final StartupTasks startupTasks;
+    private final MongoLease mongoLease;
+
+    public StartupHealthIndicator(StartupTasks startupTasks, MongoLease mongoLease) {
+        this.startupTasks = startupTasks;
+        this.mongoLease = mongoLease;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = startupTasks.getState() == StartupTasks.State.FAILED ? Health.down() : Health.up();
+        health.withDetail("state", startupTasks.getState())
+                .withDetail("seeded", startupTasks.getSeeded())
+                .withDetail("node", mongoLease.getOwner());
+        if (startupTasks.getError() != null) {
+            health.withDetail("error", startupTasks.getError());
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.recipeharbor.startup;
+
+import com.recipeharbor.index.RecipeIndexManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Loads the seed and creates the indexes once the application is ready, under the {@value #LEASE} lease so that the
+ * nodes of a deployment do it one after the other: the first one loads the seed, the next ones find it loaded and only
+ * check the indexes, which are already there.
+ * <p>
+ * The work runs on the application task executor (set {@code recipeharbor.indexes.async=false} to run it
+ * synchronously, e.g. in tests), so the application serves requests and reports ready whatever the size of the seed;
+ * its progress is reported by the {@code startup} health component. A node waiting for the lease polls for it from the
+ * task scheduler, one short upsert per interval, and only hands the work to the task executor once it holds it, so
+ * that no executor thread is held for as long as another node works. A node that fails or dies half-way leaves the
+ * seed to be resumed by the next node to get the lease.
+ * <p>
+ * The lease is renewed after every seed batch and before the index builds. An index build taking longer than the
+ * lease ttl lets another node start the same build, which the server joins to the one in progress.
+ */
+@Component
+@Slf4j
+public class StartupTasks {
+
+    public enum State { PENDING, WAITING_FOR_LEASE, RUNNING, DONE, FAILED }
+
+    static final String LEASE = "recipe-startup";
+
+    private final MongoLease mongoLease;
+    private final RecipeSeeder recipeSeeder;
+    private final RecipeIndexManager recipeIndexManager;
+    private final TaskExecutor taskExecutor;
+    private final TaskScheduler taskScheduler;
+    private final boolean async;
+    private final Duration leaseTtl;
+    private final long pollIntervalMillis;
+    private volatile State state = State.PENDING;
+    private volatile long seeded;
+    private volatile String error;
+    private volatile ScheduledFuture<?> leasePoll;
+    private boolean waitLogged;
+
+    public StartupTasks(MongoLease mongoLease,
+                        RecipeSeeder recipeSeeder,
+                        RecipeIndexManager recipeIndexManager,
+                        @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                        TaskScheduler taskScheduler,
+                        @Value("${recipeharbor.indexes.async:true}") boolean async,
+                        @Value("${recipeharbor.startup.lease.ttl-millis:600000}") long leaseTtlMillis,
+                        @Value("${recipeharbor.startup.lease.poll-interval-millis:5000}") long pollIntervalMillis) {
+        this.mongoLease = mongoLease;
+        this.recipeSeeder = recipeSeeder;
+        this.recipeIndexManager = recipeIndexManager;
+        this.taskExecutor = taskExecutor;
+        this.taskScheduler = taskScheduler;
+        this.async = async;
+        this.leaseTtl = Duration.ofMillis(leaseTtlMillis);
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        state = State.WAITING_FOR_LEASE;
+        if (async) {
+            leasePoll = taskScheduler.scheduleWithFixedDelay(this::pollLease, Duration.ofMillis(pollIntervalMillis));
+        } else {
+            try {
+                while (!tryAcquireLease()) {
+                    Thread.sleep(pollIntervalMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            run();
+        }
+    }
+
+    /**
+     * One poll of the scheduler: hands the work to the task executor once the lease is acquired, and stops polling.
+     */
+    private synchronized void pollLease() {
+        if (state == State.WAITING_FOR_LEASE && tryAcquireLease()) {
+            state = State.RUNNING;
+            taskExecutor.execute(this::run);
+        }
+        // The first polls may run before the scheduler returned the handle to cancel them with
+        ScheduledFuture<?> poll = leasePoll;
+        if (state != State.WAITING_FOR_LEASE && poll != null) {
+            poll.cancel(false);
+        }
+    }
+
+    void run() {
+        state = State.RUNNING;
+        long start = System.nanoTime();
+        try {
+            seeded = recipeSeeder.seed(this::renewLease);
+            renewLease();
+            recipeIndexManager.ensureIndexes();
+            state = State.DONE;
+            log.info("Startup tasks done in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            error = e.getMessage();
+            state = State.FAILED;
+            log.error("Startup tasks failed, the next node to start resumes them", e);
+        } finally {
+            try {
+                mongoLease.release(LEASE);
+            } catch (DataAccessException e) {
+                log.warn("Startup lease not released, it expires in {} ms: {}", leaseTtl.toMillis(), e.getMessage());
+            }
+        }
+    }
+
+    private boolean tryAcquireLease() {
+        try {
+            if (mongoLease.tryAcquire(LEASE, leaseTtl)) {
+                return true;
+            }
+            if (!waitLogged) {
+                log.info("Startup lease held by another node, waiting for it");
+                waitLogged = true;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Startup lease could not be acquired, retrying in {} ms: {}", pollIntervalMillis, e.getMessage());
+        }
+        return false;
+    }
+
+    private void renewLease() {
+        if (!mongoLease.tryAcquire(LEASE, leaseTtl)) {
+            throw new IllegalStateException("Startup lease expired and taken over by another node");
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getSeeded() {
+        return seeded;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -43,6 +43,7 @@ public class AtleastOneFieldValidator implements ConstraintValidator<AtleastOneF
                 || searchCriteriaDto.getServings() != null
                 || searchCriteriaDto.getIncludeIngredients()!= null
                 || searchCriteriaDto.getExcludeIngredients()!= null
-                || searchCriteriaDto.getInstructionsText() != null;
+                || searchCriteriaDto.getInstructionsText() != null
+                || searchCriteriaDto.getText() != null;
     }
 }
@@ -0,0 +1,107 @@
+package com.recipeharbor.cache;
+
+import com.recipeharbor.dto.CacheStatsDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class BoundedCacheTest {
+
+    @Test
+    void givenCachedValue_whenReadAgain_thenLoaderIsNotCalled() {
+        //given
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 60_000, 0, Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+
+        //when
+        cache.get("a", key -> "value-" + loads.incrementAndGet());
+        String value = cache.get("a", key -> "value-" + loads.incrementAndGet());
+
+        //then
+        CacheStatsDto stats = cache.stats();
+        assertThat(value).isEqualTo("value-1");
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void givenAbsentValue_whenRead_thenItIsNotCached() {
+        //given
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 60_000, 0, Runnable::run);
+
+        //when
+        cache.get("a", key -> null);
+
+        //then
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.stats().getSize()).isEqualTo(0);
+    }
+
+    @Test
+    void givenWriteDuringLoad_whenLoadCompletes_thenLoadedValueIsNotInstalled() {
+        //given
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 60_000, 0, Runnable::run);
+
+        //when
+        String loaded = cache.get("a", key -> {
+            // a writer updates the database and the cache while this reader still holds the old value
+            cache.put("a", "new");
+            return "old";
+        });
+
+        //then
+        assertThat(loaded).isEqualTo("old");
+        assertThat(cache.getIfPresent("a")).isEqualTo("new");
+    }
+
+    @Test
+    void givenInvalidatedKey_whenRead_thenValueIsLoadedAgain() {
+        //given
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 60_000, 0, Runnable::run);
+        cache.put("a", "old");
+
+        //when
+        cache.invalidate("a");
+
+        //then
+        assertThat(cache.get("a", key -> "new")).isEqualTo("new");
+    }
+
+    @Test
+    void givenFullCache_whenValueAdded_thenLeastRecentlyReadEntriesAreEvicted() throws InterruptedException {
+        //given
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>("test", 10, 60_000, 0, Runnable::run);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+        Thread.sleep(1);
+        cache.get(0, key -> key);
+
+        //when
+        cache.put(10, 10);
+
+        //then
+        assertThat(cache.stats().getSize()).isEqualTo(9);
+        assertThat(cache.stats().getEvictions()).isEqualTo(2);
+        assertThat(cache.getIfPresent(0)).isEqualTo(0);
+        assertThat(cache.getIfPresent(10)).isEqualTo(10);
+    }
+
+    @Test
+    void givenEntryOlderThanRefreshAfterWrite_whenRead_thenServeCurrentValueAndReloadIt() throws InterruptedException {
+        //given
+        BoundedCache<String, String> cache = new BoundedCache<>("test", 10, 60_000, 1, Runnable::run);
+        cache.put("a", "old");
+        Thread.sleep(5);
+
+        //when
+        String value = cache.get("a", key -> "new");
+
+        //then
+        assertThat(value).isEqualTo("old");
+        assertThat(cache.getIfPresent("a")).isEqualTo("new");
+        assertThat(cache.stats().getRefreshes()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,57 @@
+package com.recipeharbor.cache;
+
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.service.event.RecipeChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class RecipeCacheInvalidatorTest {
+
+    private final BoundedCache<String, Recipe> recipeCache = new BoundedCache<>("recipes", 10, 60_000, 0, Runnable::run);
+    private final RecipeCacheInvalidator recipeCacheInvalidator = new RecipeCacheInvalidator(recipeCache);
+
+    @Test
+    void givenCachedRecipe_whenAnotherNodeUpdatesIt_thenDropIt() {
+        //given
+        recipeCache.put("1", recipe("1", 1L));
+
+        //when
+        recipeCacheInvalidator.onRecipeChanged(RecipeChangedEvent.updated(recipe("1", 2L)));
+
+        //then
+        assertThat(recipeCache.getIfPresent("1")).isNull();
+    }
+
+    @Test
+    void givenCachedRecipe_whenItsOwnWriteIsReceivedAgain_thenKeepIt() {
+        //given
+        Recipe cached = recipe("1", 2L);
+        recipeCache.put("1", cached);
+
+        //when
+        recipeCacheInvalidator.onRecipeChanged(RecipeChangedEvent.updated(recipe("1", 2L)));
+
+        //then
+        assertThat(recipeCache.getIfPresent("1")).isSameAs(cached);
+    }
+
+    @Test
+    void givenCachedRecipe_whenAnotherNodeDeletesIt_thenDropIt() {
+        //given
+        recipeCache.put("1", recipe("1", 1L));
+
+        //when
+        recipeCacheInvalidator.onRecipeChanged(RecipeChangedEvent.deleted("1"));
+
+        //then
+        assertThat(recipeCache.getIfPresent("1")).isNull();
+    }
+
+    private static Recipe recipe(String id, Long version) {
+        Recipe recipe = Recipe.builder().name("Soup").build();
+        recipe.setId(id);
+        recipe.setVersion(version);
+        return recipe;
+    }
+}
@@ -11,6 +11,7 @@ public class MongoTestConfig {
     public ObjectMapper objectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
+        JacksonConfig.registerRecipeFieldsFilter(objectMapper);
         return objectMapper;
     }
 
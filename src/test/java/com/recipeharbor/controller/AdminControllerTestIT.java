@@ -0,0 +1,56 @@
+package com.recipeharbor.controller;
+
+import com.recipeharbor.config.AbstractContainerBaseTest;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "recipeharbor.indexes.async=false")
+@AutoConfigureMockMvc
+class AdminControllerTestIT extends AbstractContainerBaseTest {
+
+    private static final String INDEX_REPORT_API_PATH = "/api/admin/indexes";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void givenManagedIndexes_whenFetchIndexReport_thenIndexesAreReadyAndEqualityShapesUseThem() throws Exception {
+        //when
+        ResultActions response = mockMvc.perform(get(INDEX_REPORT_API_PATH));
+
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.indexes[*].state", CoreMatchers.everyItem(CoreMatchers.equalTo("READY"))))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.shapes.length()", CoreMatchers.equalTo(63)));
+    }
+
+    @Test
+    void givenManagedIndexes_whenFetchUncoveredShapes_thenVegetarianAndServingsShapeIsNotReported() throws Exception {
+        //when
+        ResultActions response = mockMvc.perform(get(INDEX_REPORT_API_PATH).param("onlyUncovered", "true"));
+
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.shapes[?(@.fields == ['vegetarian','servings'])]").isEmpty());
+    }
+
+    @Test
+    void givenNoSlowSearch_whenFetchSlowSearches_thenReturnEmptyList() throws Exception {
+        //when
+        ResultActions response = mockMvc.perform(get("/api/admin/slow-searches"));
+
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()", CoreMatchers.equalTo(0)));
+    }
+}
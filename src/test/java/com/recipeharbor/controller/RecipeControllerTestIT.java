@@ -1,12 +1,20 @@
 package com.recipeharbor.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.recipeharbor.config.AbstractContainerBaseTest;
-import com.recipeharbor.config.RecipePage;
+import com.recipeharbor.config.JacksonConfig;
+import com.recipeharbor.dto.Ingredient;
+import com.recipeharbor.dto.PantrySearchDto;
 import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.dto.RecipePageDto;
+import com.recipeharbor.dto.RecipePatchDto;
 import com.recipeharbor.dto.SearchCriteriaDto;
+import com.recipeharbor.entity.Recipe;
 import com.recipeharbor.mapper.RecipeMapper;
 import com.recipeharbor.repository.RecipeRepository;
+import com.recipeharbor.service.search.IngredientIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +22,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -21,11 +30,14 @@ import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "recipeharbor.indexes.async=false")
 @AutoConfigureMockMvc
 @Slf4j
 public class RecipeControllerTestIT extends AbstractContainerBaseTest {
@@ -43,11 +55,15 @@ public class RecipeControllerTestIT extends AbstractContainerBaseTest {
     private RecipeRepository recipeRepository;
     @Autowired
     private RecipeMapper recipeMapper;
+    @Autowired
+    private IngredientIndex ingredientIndex;
     private RecipeDto recipeDto;
 
     @BeforeEach
     void setUp() {
         recipeRepository.deleteAll();
+        // the test data is written through the repository, around the service that keeps the index current
+        ingredientIndex.rebuild();
         //Create a test RecipeDto object
 
         recipeDto = RecipeDtoTestDataBuilder
@@ -78,6 +94,24 @@ public class RecipeControllerTestIT extends AbstractContainerBaseTest {
     }
 
 
+    @Test
+    void givenExistingRecipeId_whenCreateRecipe_thenReturn409Conflict() throws Exception {
+        //given
+        ResultActions response = mockMvc.perform(post(CREATE_RECIPE_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recipeDto)));
+        recipeDto.setId(objectMapper.readValue(response.andReturn().getResponse().getContentAsString(), RecipeDto.class).getId());
+
+        //when
+        response = mockMvc.perform(post(CREATE_RECIPE_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recipeDto)));
+
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+    }
+
     @Test
     void givenRecipeId_whenFetchRecipe_thenReturnRecipeAnd200Status() throws Exception {
         //given
@@ -100,6 +134,181 @@ public class RecipeControllerTestIT extends AbstractContainerBaseTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.equalTo(recipeDtoSaved.getId())));
     }
 
+    @Test
+    void givenCachedRecipeUpdatedByAnotherNode_whenFetchRecipe_thenReturnTheNewVersion() throws Exception {
+        //given
+        ResultActions response = mockMvc.perform(post(CREATE_RECIPE_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recipeDto)));
+        RecipeDto recipeDtoSaved =
+                objectMapper.readValue(response.andReturn().getResponse().getContentAsString(), RecipeDto.class);
+        mockMvc.perform(get(GET_RECIPE_API_PATH + recipeDtoSaved.getId()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        // written around the service, as another node would, while the recipe and its response are cached
+        Recipe recipe = recipeRepository.findById(recipeDtoSaved.getId()).orElseThrow();
+        recipe.setName("Orange Juice");
+        recipeRepository.save(recipe);
+
+        //when
+        response = mockMvc.perform(get(GET_RECIPE_API_PATH + recipeDtoSaved.getId()));
+
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.equalTo("Orange Juice")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.version", CoreMatchers.equalTo(recipeDtoSaved.getVersion().intValue() + 1)))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"" + (recipeDtoSaved.getVersion() + 1) + "\""));
+    }
+
+    @Test
+    void givenFields_whenFetchRecipe_thenReturnOnlyThoseFields() throws Exception {
+        //given
+        ResultActions response = mockMvc.perform(post(CREATE_RECIPE_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recipeDto)));
+        RecipeDto recipeDtoSaved =
+                objectMapper.readValue(response.andReturn().getResponse().getContentAsString(), RecipeDto.class);
+
+        //when
+        response = mockMvc.perform(get(GET_RECIPE_API_PATH + recipeDtoSaved.getId())
+                .param("fields", "name,servings"));
+
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.equalTo(recipeDtoSaved.getId())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.equalTo(recipeDtoSaved.getName())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.servings", CoreMatchers.equalTo(recipeDtoSaved.getServings())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.ingredients").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.instructions").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.veg").doesNotExist());
+    }
+
+    @Test
+    void givenUnknownField_whenFetchRecipe_thenReturn400() throws Exception {
+        //when
+        ResultActions response = mockMvc.perform(get(GET_RECIPE_API_PATH + "65e841e36ad9c545baf4c9ef")
+                .param("fields", "calories"));
+
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void givenMatchingETag_whenFetchRecipe_thenReturn304UntilRecipeChanges() throws Exception {
+        //given
+        ResultActions response = mockMvc.perform(post(CREATE_RECIPE_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recipeDto)));
+        RecipeDto recipeDtoSaved =
+                objectMapper.readValue(response.andReturn().getResponse().getContentAsString(), RecipeDto.class);
+        String eTag = mockMvc.perform(get(GET_RECIPE_API_PATH + recipeDtoSaved.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when
+        ResultActions notModifiedResponse = mockMvc.perform(get(GET_RECIPE_API_PATH + recipeDtoSaved.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag));
+        mockMvc.perform(patch(UPDATE_RECIPE_API_PATH + recipeDtoSaved.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(RecipePatchDto.builder().servings(4).build())));
+        ResultActions modifiedResponse = mockMvc.perform(get(GET_RECIPE_API_PATH + recipeDtoSaved.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag));
+
+        //then
+        notModifiedResponse.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        modifiedResponse.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.servings", CoreMatchers.equalTo(4)));
+    }
+
+    @Test
+    void givenGzipAccepted_whenFetchLargeRecipe_thenTagTheGzippedResponseAndAcceptTheTagBack() throws Exception {
+        //given
+        recipeDto.setInstructions(IntStream.rangeClosed(1, 50)
+                .mapToObj(step -> RecipeDtoTestDataBuilder.buildInstructions(step, "Stir the oranges for a minute"))
+                .toList());
+        ResultActions response = mockMvc.perform(post(CREATE_RECIPE_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recipeDto)));
+        RecipeDto recipeDtoSaved =
+                objectMapper.readValue(response.andReturn().getResponse().getContentAsString(), RecipeDto.class);
+        String identityETag = mockMvc.perform(get(GET_RECIPE_API_PATH + recipeDtoSaved.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //when
+        ResultActions gzipResponse = mockMvc.perform(get(GET_RECIPE_API_PATH + recipeDtoSaved.getId())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        String gzipETag = gzipResponse.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        ResultActions notModifiedResponse = mockMvc.perform(get(GET_RECIPE_API_PATH + recipeDtoSaved.getId())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, gzipETag));
+
+        //then
+        gzipResponse.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        assertThat(gzipETag).isEqualTo(identityETag.substring(0, identityETag.length() - 1) + "-gzip\"");
+        notModifiedResponse.andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, gzipETag));
+    }
+
+    @Test
+    void givenCborAccepted_whenFetchRecipe_thenReturnRecipeAsCbor() throws Exception {
+        //given
+        ResultActions response = mockMvc.perform(post(CREATE_RECIPE_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recipeDto)));
+        RecipeDto recipeDtoSaved =
+                objectMapper.readValue(response.andReturn().getResponse().getContentAsString(), RecipeDto.class);
+
+        //when
+        byte[] cborRecipe = mockMvc.perform(get(GET_RECIPE_API_PATH + recipeDtoSaved.getId())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        //then
+        Map<?, ?> recipe = new CBORMapper().readValue(cborRecipe, Map.class);
+        assertThat(recipe.get("id")).isEqualTo(recipeDtoSaved.getId());
+        assertThat(recipe.get("name")).isEqualTo(recipeDtoSaved.getName());
+    }
+
+    @Test
+    void givenBrowserAccept_whenFetchRecipe_thenReturnJson() throws Exception {
+        //given
+        ResultActions response = mockMvc.perform(post(CREATE_RECIPE_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recipeDto)));
+        RecipeDto recipeDtoSaved =
+                objectMapper.readValue(response.andReturn().getResponse().getContentAsString(), RecipeDto.class);
+
+        //when
+        response = mockMvc.perform(get(GET_RECIPE_API_PATH + recipeDtoSaved.getId())
+                .header(HttpHeaders.ACCEPT, "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"));
+
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id", CoreMatchers.equalTo(recipeDtoSaved.getId())));
+    }
+
+    @Test
+    void givenSmileRecipeDto_whenCreateRecipe_thenReturn201Created() throws Exception {
+        //given
+        byte[] smileRecipe = new SmileMapper().writeValueAsBytes(recipeDto);
+
+        //when
+        ResultActions response = mockMvc.perform(post(CREATE_RECIPE_API_PATH)
+                .contentType(JacksonConfig.APPLICATION_SMILE_VALUE)
+                .content(smileRecipe));
+
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.equalTo(recipeDto.getName())));
+    }
+
     @Test
     void givenRecipeDto_whenUpdateRecipe_thenReturn200Ok() throws Exception {
         //given
@@ -124,6 +333,64 @@ public class RecipeControllerTestIT extends AbstractContainerBaseTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.equalTo("Orange and Tomato Juice New")));
     }
 
+    @Test
+    void givenStaleIfMatch_whenUpdateRecipe_thenReturn412() throws Exception {
+        //given
+        ResultActions response = mockMvc.perform(post(CREATE_RECIPE_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recipeDto)));
+        String createdETag = response.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        RecipeDto recipeDtoSaved =
+                objectMapper.readValue(response.andReturn().getResponse().getContentAsString(), RecipeDto.class);
+        recipeDtoSaved.setName("Orange and Tomato Juice New");
+        mockMvc.perform(put(UPDATE_RECIPE_API_PATH + recipeDtoSaved.getId())
+                        .header(HttpHeaders.IF_MATCH, createdETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(recipeDtoSaved)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1\""));
+
+        //when
+        recipeDtoSaved.setName("Orange and Tomato Juice Old");
+        response = mockMvc.perform(put(UPDATE_RECIPE_API_PATH + recipeDtoSaved.getId())
+                .header(HttpHeaders.IF_MATCH, createdETag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recipeDtoSaved)));
+
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+        mockMvc.perform(get(GET_RECIPE_API_PATH + recipeDtoSaved.getId()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.equalTo("Orange and Tomato Juice New")));
+    }
+
+    @Test
+    void givenRecipePatch_whenPatchRecipe_thenChangeOnlyPatchedFields() throws Exception {
+        //given
+        ResultActions response = mockMvc.perform(post(CREATE_RECIPE_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recipeDto)));
+        RecipeDto recipeDtoSaved =
+                objectMapper.readValue(response.andReturn().getResponse().getContentAsString(), RecipeDto.class);
+        RecipePatchDto recipePatchDto = RecipePatchDto.builder()
+                .servings(5)
+                .addIngredients(List.of(Ingredient.builder().name("Mint").quantity(2).unit("leaves").build()))
+                .build();
+
+        //when
+        response = mockMvc.perform(patch(UPDATE_RECIPE_API_PATH + recipeDtoSaved.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(recipePatchDto)));
+
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name", CoreMatchers.equalTo(recipeDtoSaved.getName())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.servings", CoreMatchers.equalTo(5)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.ingredients.length()",
+                        CoreMatchers.equalTo(recipeDtoSaved.getIngredients().size() + 1)));
+    }
+
     @Test
     void givenRecipeId_whenDeleteRecipe_thenReturn204() throws Exception {
         //given
@@ -163,18 +430,144 @@ public class RecipeControllerTestIT extends AbstractContainerBaseTest {
                 .param("page", "0")
                 .param("size", "10"));
 
-        RecipePage recipeDtoPage =
+        RecipePageDto recipeDtoPage =
                 objectMapper.readValue(response
                         .andReturn()
                         .getResponse()
-                        .getContentAsString(), RecipePage.class);
+                        .getContentAsString(), RecipePageDto.class);
         log.info("Recipes found {} and total count of elements: {}", recipeDtoPage.getContent(), recipeDtoPage.getTotalElements());
 
         //then
         response.andDo(MockMvcResultHandlers.print())
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.content", CoreMatchers.notNullValue()))
-                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements", CoreMatchers.equalTo(3)));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.page", CoreMatchers.equalTo(0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements", CoreMatchers.equalTo(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.pageable").doesNotExist());
+        assertThat(recipeDtoPage.getContent().size()).isEqualTo(3);
+    }
+
+    @Test
+    void givenTextSearchCriteria_whenSearchRecipe_thenReturnRankedRecipesWithScore() throws Exception {
+        //given
+        prepareAndSaveSearchData();
+
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .text("blend")
+                .sortByRelevance(true)
+                .build();
+
+        //when
+        ResultActions response = mockMvc.perform(post(SEARCH_RECIPE_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(searchCriteriaDto)));
+
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements", CoreMatchers.equalTo(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name", CoreMatchers.equalTo("Recipe 3")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].score", CoreMatchers.notNullValue()));
+    }
+
+    @Test
+    void givenSearchCriteriaAndCursor_whenSearchRecipe_thenPageThroughAllRecipesWithNextCursor() throws Exception {
+        //given
+        prepareAndSaveSearchData();
+
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .includeIngredients(List.of("Onions"))
+                .build();
+
+        //when
+        ResultActions firstPage = mockMvc.perform(post(SEARCH_RECIPE_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(searchCriteriaDto))
+                .param("cursor", "")
+                .param("size", "3"));
+        String nextCursor = firstPage.andReturn().getResponse().getHeader("X-Next-Cursor");
+        ResultActions secondPage = mockMvc.perform(post(SEARCH_RECIPE_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(searchCriteriaDto))
+                .param("cursor", nextCursor)
+                .param("size", "3"));
+
+        //then
+        firstPage.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists("X-Next-Cursor"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor", CoreMatchers.equalTo(nextCursor)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()", CoreMatchers.equalTo(3)));
+        secondPage.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("X-Next-Cursor"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasNext", CoreMatchers.equalTo(false)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content.length()", CoreMatchers.equalTo(1)));
+    }
+
+    @Test
+    void givenPantry_whenSearchPantry_thenReturnRecipesRankedByFewestMissing() throws Exception {
+        //given
+        prepareAndSaveSearchData();
+
+        PantrySearchDto pantrySearchDto = PantrySearchDto.builder()
+                .ingredients(List.of("Onions", "Tomatoes"))
+                .maxMissing(1)
+                .build();
+
+        //when
+        ResultActions response = mockMvc.perform(post(SEARCH_RECIPE_API_PATH + "/pantry")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(pantrySearchDto)));
+
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements", CoreMatchers.equalTo(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].name", CoreMatchers.equalTo("Recipe 1")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].missingIngredients.length()", CoreMatchers.equalTo(0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.content[1].missingIngredients.length()", CoreMatchers.equalTo(1)));
+    }
+
+    @Test
+    void givenRecipeWrittenByAnotherNode_whenSearchIngredients_thenIndexFindsItOnceTheChangeStreamDeliveredIt() throws Exception {
+        //given - written around the service, as another node would, after the index was built
+        recipeRepository.save(recipeMapper.recipeDtoToRecipeEntity(recipeDto));
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder().includeIngredients(List.of("Oranges")).build();
+
+        //when - searched on the index itself, the API caches search results for a while
+        long total = 0;
+        for (int attempt = 0; attempt < 50 && total == 0; attempt++) {
+            Thread.sleep(100);
+            total = ingredientIndex.search(searchCriteriaDto, 0, 10).map(IngredientIndex.Hits::total).orElse(0L);
+        }
+
+        //then
+        assertThat(total).isEqualTo(1L);
+    }
+
+    @Test
+    void givenValidAndInvalidRecipes_whenCreateRecipesInBatch_thenReturnPerItemStatusAndFetchCreatedOnes() throws Exception {
+        //given
+        RecipeDto invalidRecipeDto = RecipeDto.builder().name("Jam").build();
+
+        //when
+        ResultActions response = mockMvc.perform(post(CREATE_RECIPE_API_PATH + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(recipeDto, invalidRecipeDto))));
+        String createdId = objectMapper.readTree(response.andReturn().getResponse().getContentAsString()).get(0).get("id").asText();
+        ResultActions fetchResponse = mockMvc.perform(post(CREATE_RECIPE_API_PATH + "/batch/get")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(createdId, "65e841e36ad9c545baf4c9ef"))));
+
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status", CoreMatchers.equalTo(201)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].status", CoreMatchers.equalTo(400)));
+        fetchResponse.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].recipe.name", CoreMatchers.equalTo("Orange and Tomato Juice")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].status", CoreMatchers.equalTo(404)));
     }
 
     private void prepareAndSaveSearchData() {
@@ -222,6 +615,7 @@ public class RecipeControllerTestIT extends AbstractContainerBaseTest {
 
 
         List.of(recipeDto1, recipeDto2, recipeDto3, recipeDto4).stream().map(recipeMapper::recipeDtoToRecipeEntity).forEach(recipeRepository::save);
+        ingredientIndex.rebuild();
     }
 
 }
\ No newline at end of file
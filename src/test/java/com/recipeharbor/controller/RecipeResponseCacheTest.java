@@ -0,0 +1,110 @@
+package com.recipeharbor.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.recipeharbor.cache.BoundedCache;
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.service.RecipeStamp;
+import com.recipeharbor.service.event.RecipeChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class RecipeResponseCacheTest {
+
+    private static final String RECIPE_ID = "65e841e36ad9c545baf4c9ef";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private RecipeResponseCache recipeResponseCache;
+    private RecipeDto recipeDto;
+
+    @BeforeEach
+    void setUp() {
+        recipeResponseCache = new RecipeResponseCache(new BoundedCache<>("responses", 100, 60_000, 0, Runnable::run),
+                objectMapper, true, 1024);
+        recipeDto = RecipeDtoTestDataBuilder.buildRecipeDto(RECIPE_ID, "Orange and Tomato Juice", 2,
+                List.of(RecipeDtoTestDataBuilder.buildIngredient("Oranges", 2, "cups")),
+                List.of(RecipeDtoTestDataBuilder.buildInstructions(1, "Blend the oranges")), true);
+        recipeDto.setVersion(3L);
+    }
+
+    @Test
+    void givenCachedRecipe_whenFetchedAgain_thenSerializeOnlyOnce() throws IOException {
+        //given
+        AtomicInteger reads = new AtomicInteger();
+        recipeResponseCache.get(RECIPE_ID, new RecipeStamp(3L, null), () -> {
+            reads.incrementAndGet();
+            return recipeDto;
+        });
+
+        //when
+        RecipeResponseCache.SerializedRecipe serializedRecipe = recipeResponseCache.get(RECIPE_ID, new RecipeStamp(3L, null), () -> {
+            reads.incrementAndGet();
+            return recipeDto;
+        });
+
+        //then
+        assertThat(reads.get()).isEqualTo(1);
+        assertThat(serializedRecipe.version()).isEqualTo(3L);
+        assertThat(objectMapper.readValue(serializedRecipe.json(), RecipeDto.class).getName()).isEqualTo(recipeDto.getName());
+        assertThat(serializedRecipe.gzip()).isNull();
+    }
+
+    @Test
+    void givenRecipeChanged_whenFetched_thenSerializeTheNewVersion() {
+        //given
+        recipeResponseCache.get(RECIPE_ID, new RecipeStamp(3L, null), () -> recipeDto);
+        RecipeDto updatedRecipeDto = RecipeDtoTestDataBuilder.buildRecipeDto(RECIPE_ID, "Orange Juice", 4,
+                recipeDto.getIngredients(), recipeDto.getInstructions(), true);
+        updatedRecipeDto.setVersion(4L);
+
+        //when
+        recipeResponseCache.onRecipeChanged(RecipeChangedEvent.updated(Recipe.builder().id(RECIPE_ID).build()));
+        RecipeResponseCache.SerializedRecipe serializedRecipe = recipeResponseCache.get(RECIPE_ID, new RecipeStamp(4L, null), () -> updatedRecipeDto);
+
+        //then
+        assertThat(serializedRecipe.version()).isEqualTo(4L);
+    }
+
+    @Test
+    void givenRecipeChangedOnAnotherNode_whenFetched_thenSerializeTheNewVersion() {
+        //given
+        recipeResponseCache.get(RECIPE_ID, new RecipeStamp(3L, null), () -> recipeDto);
+        RecipeDto updatedRecipeDto = RecipeDtoTestDataBuilder.buildRecipeDto(RECIPE_ID, "Orange Juice", 4,
+                recipeDto.getIngredients(), recipeDto.getInstructions(), true);
+        updatedRecipeDto.setVersion(4L);
+
+        //when - no change event, only the stamp of the recipe moved on
+        RecipeResponseCache.SerializedRecipe serializedRecipe = recipeResponseCache.get(RECIPE_ID, new RecipeStamp(4L, null), () -> updatedRecipeDto);
+
+        //then
+        assertThat(serializedRecipe.version()).isEqualTo(4L);
+        assertThat(recipeResponseCache.get(RECIPE_ID, new RecipeStamp(4L, null), () -> recipeDto).version()).isEqualTo(4L);
+    }
+
+    @Test
+    void givenLargeRecipe_whenSerialized_thenKeepItGzippedToo() throws IOException {
+        //given
+        recipeDto.setInstructions(IntStream.rangeClosed(1, 50)
+                .mapToObj(step -> RecipeDtoTestDataBuilder.buildInstructions(step, "Stir the oranges for a minute"))
+                .toList());
+
+        //when
+        RecipeResponseCache.SerializedRecipe serializedRecipe = recipeResponseCache.serialize(recipeDto);
+
+        //then
+        assertThat(serializedRecipe.gzip()).isNotNull();
+        assertThat(serializedRecipe.gzip().length).isLessThan(serializedRecipe.json().length);
+        byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(serializedRecipe.gzip())).readAllBytes();
+        assertThat(unzipped).isEqualTo(serializedRecipe.json());
+    }
+}
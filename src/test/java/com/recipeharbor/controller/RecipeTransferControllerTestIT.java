@@ -0,0 +1,97 @@
+package com.recipeharbor.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipeharbor.config.AbstractContainerBaseTest;
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.repository.RecipeRepository;
+import org.hamcrest.CoreMatchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "recipeharbor.indexes.async=false")
+@AutoConfigureMockMvc
+class RecipeTransferControllerTestIT extends AbstractContainerBaseTest {
+
+    private static final String IMPORT_API_PATH = "/api/recipe/import";
+    private static final String EXPORT_API_PATH = "/api/recipe/export";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @BeforeEach
+    void setUp() {
+        recipeRepository.deleteAll();
+    }
+
+    @Test
+    void givenNdjsonWithAnInvalidLine_whenImportRecipes_thenImportValidLinesAndReportInvalidOne() throws Exception {
+        //given
+        String body = String.join("\n",
+                objectMapper.writeValueAsString(buildRecipeDto("Orange and Tomato Juice")),
+                objectMapper.writeValueAsString(buildRecipeDto("Jam")),
+                objectMapper.writeValueAsString(buildRecipeDto("Onion and Tomato Soup")));
+
+        //when
+        ResultActions response = mockMvc.perform(post(IMPORT_API_PATH)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body));
+
+        //then
+        response.andDo(MockMvcResultHandlers.print())
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.imported", CoreMatchers.equalTo(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.failed", CoreMatchers.equalTo(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.errors[0].line", CoreMatchers.equalTo(2)));
+        assertThat(recipeRepository.count()).isEqualTo(2L);
+    }
+
+    @Test
+    void givenImportedRecipes_whenExportRecipes_thenStreamOneRecipePerLine() throws Exception {
+        //given
+        String body = String.join("\n",
+                objectMapper.writeValueAsString(buildRecipeDto("Orange and Tomato Juice")),
+                objectMapper.writeValueAsString(buildRecipeDto("Onion and Tomato Soup")));
+        mockMvc.perform(post(IMPORT_API_PATH).contentType(MediaType.APPLICATION_NDJSON).content(body));
+
+        //when
+        MvcResult result = mockMvc.perform(get(EXPORT_API_PATH))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
+
+        //then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+        String[] lines = response.andReturn().getResponse().getContentAsString().split("\n");
+        assertThat(lines.length).isEqualTo(2);
+        assertThat(objectMapper.readValue(lines[0], RecipeDto.class).getId()).isNotNull();
+    }
+
+    private static RecipeDto buildRecipeDto(String name) {
+        return RecipeDtoTestDataBuilder
+                .buildRecipeDto(null,
+                        name,
+                        2,
+                        List.of(RecipeDtoTestDataBuilder.buildIngredient("Tomatoes", 3, "cups")),
+                        List.of(RecipeDtoTestDataBuilder.buildInstructions(1, "Blend the tomatoes")),
+                        true);
+    }
+}
@@ -0,0 +1,91 @@
+package com.recipeharbor.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.recipeharbor.config.JacksonConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class RecipePageDtoSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final RecipeDto recipeDto = RecipeDto.builder()
+            .id("65e841e36ad9c545baf4c9ef")
+            .name("Pesto Pasta")
+            .isVeg(true)
+            .servings(3)
+            .ingredients(List.of(new Ingredient("Basil", 20, "leaves")))
+            .build();
+
+    @Test
+    void givenPage_whenSerialized_thenWriteOnlyTheEnvelopeFields() throws IOException {
+        //given
+        RecipePageDto recipePage = RecipePageDto.builder()
+                .content(List.of(recipeDto))
+                .page(2)
+                .size(10)
+                .hasNext(true)
+                .totalElements(42L)
+                .build();
+
+        //when
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(recipePage));
+
+        //then
+        assertThat(fieldNames(json)).isEqualTo(Set.of("content", "page", "size", "hasNext", "totalElements"));
+        assertThat(json.get("content").get(0).get("name").asText()).isEqualTo("Pesto Pasta");
+        assertThat(json.get("totalElements").asLong()).isEqualTo(42L);
+        assertThat(objectMapper.readValue(objectMapper.writeValueAsBytes(recipePage), RecipePageDto.class).getContent().get(0).getName())
+                .isEqualTo("Pesto Pasta");
+    }
+
+    @Test
+    void givenCursorPage_whenSerialized_thenLeaveOutPageNumberAndTotal() throws IOException {
+        //given
+        RecipePageDto recipePage = RecipePageDto.builder()
+                .content(List.of(recipeDto))
+                .size(1)
+                .hasNext(true)
+                .nextCursor("cursor")
+                .build();
+
+        //when
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(recipePage));
+
+        //then
+        assertThat(fieldNames(json)).isEqualTo(Set.of("content", "size", "hasNext", "nextCursor"));
+        assertThat(json.get("nextCursor").asText()).isEqualTo("cursor");
+    }
+
+    @Test
+    void givenFieldsFilter_whenSerialized_thenFilterTheRecipes() throws IOException {
+        //given
+        JacksonConfig.registerRecipeFieldsFilter(objectMapper);
+        RecipePageDto recipePage = RecipePageDto.builder().content(List.of(recipeDto)).page(0).size(10).build();
+
+        //when
+        JsonNode json = objectMapper.readTree(objectMapper
+                .writer(new SimpleFilterProvider().addFilter(JacksonConfig.RECIPE_FIELDS_FILTER,
+                        SimpleBeanPropertyFilter.filterOutAllExcept("id", "name")))
+                .writeValueAsBytes(recipePage));
+
+        //then
+        assertThat(fieldNames(json.get("content").get(0))).isEqualTo(Set.of("id", "name"));
+    }
+
+    private static Set<String> fieldNames(JsonNode json) {
+        Set<String> fieldNames = new HashSet<>();
+        json.fieldNames().forEachRemaining(fieldNames::add);
+        return fieldNames;
+    }
+}
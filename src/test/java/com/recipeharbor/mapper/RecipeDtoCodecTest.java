@@ -0,0 +1,90 @@
+package com.recipeharbor.mapper;
+
+import com.recipeharbor.dto.Ingredient;
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.entity.Steps;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class RecipeDtoCodecTest {
+
+    private final RecipeDtoCodec recipeDtoCodec = new RecipeDtoCodec();
+
+    @Test
+    void givenRecipeWrittenBySpringData_whenDecoded_thenReturnSameDtoAsTheMapper() {
+        //given
+        Recipe recipe = Recipe.builder()
+                .id(new ObjectId().toHexString())
+                .name("Pesto Pasta")
+                .vegetarian(true)
+                .servings(3)
+                .ingredients(List.of(new Ingredient("Basil", 20, "leaves"), new Ingredient("Pasta", 250, "g")))
+                .instructions(List.of(new Steps(1, "Blend the basil"), new Steps(2, "Cook the pasta")))
+                .build();
+        recipe.setCreatedAt(LocalDateTime.of(2024, 3, 6, 10, 15, 30, 123_000_000));
+        recipe.setUpdatedAt(LocalDateTime.of(2024, 3, 7, 8, 0, 0, 456_000_000));
+        recipe.setVersion(4L);
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        Document document = new Document();
+        converter.write(recipe, document);
+
+        //when
+        RecipeDto recipeDto = new RawBsonDocument(document, new DocumentCodec()).decode(recipeDtoCodec);
+
+        //then
+        assertThat(recipeDto).isEqualTo(new RecipeMapper().recipeEntityToRecipeDto(recipe));
+    }
+
+    @Test
+    void givenProjectedDocument_whenDecoded_thenLeaveMissingFieldsEmpty() {
+        //given
+        ObjectId id = new ObjectId();
+        Document document = new Document("_id", id).append("name", "Pesto Pasta").append("score", 1.5);
+
+        //when
+        RecipeDto recipeDto = new RawBsonDocument(document, new DocumentCodec()).decode(recipeDtoCodec);
+
+        //then
+        assertThat(recipeDto.getId()).isEqualTo(id.toHexString());
+        assertThat(recipeDto.getName()).isEqualTo("Pesto Pasta");
+        assertThat(recipeDto.getScore()).isEqualTo(1.5f);
+        assertThat(recipeDto.getIngredients()).isNull();
+        assertThat(recipeDto.getVersion()).isNull();
+    }
+
+    @Test
+    void givenUnexpectedTypes_whenDecoded_thenSkipThem() {
+        //given
+        Document document = new Document("_id", "legacy-id")
+                .append("servings", 4L)
+                .append("ingredients", "not a list")
+                .append("instructions", List.of("not a step", new Document("step_number", 1).append("description", "Serve")));
+
+        //when
+        RecipeDto recipeDto = new RawBsonDocument(document, new DocumentCodec()).decode(recipeDtoCodec);
+
+        //then
+        assertThat(recipeDto.getId()).isEqualTo("legacy-id");
+        assertThat(recipeDto.getServings()).isEqualTo(4);
+        assertThat(recipeDto.getIngredients()).isNull();
+        assertThat(recipeDto.getInstructions()).isEqualTo(List.of(new Steps(1, "Serve")));
+    }
+}
@@ -0,0 +1,78 @@
+package com.recipeharbor.metrics;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class MongoRequestMetricsListenerTest {
+
+    private static final ServerId SERVER_ID = new ServerId(new ClusterId(), new ServerAddress());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoRequestMetricsListener listener = new MongoRequestMetricsListener(meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void givenCommandIssuedByAnEndpoint_whenItSucceeds_thenRecordItsReplySizeUnderTheEndpoint() {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/recipe/65e841e36ad9c545baf4c9ef");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/recipe/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        RawBsonDocument response = new RawBsonDocument(new BsonDocument("ok", new BsonInt32(1)), new BsonDocumentCodec());
+
+        //when
+        listener.commandSucceeded(new CommandSucceededEvent(null, 1, 1, new ConnectionDescription(SERVER_ID), "recipes",
+                "find", response, TimeUnit.MILLISECONDS.toNanos(2)));
+
+        //then
+        DistributionSummary replySize = meterRegistry.get(MongoRequestMetricsListener.REPLY_SIZE)
+                .tag("command", "find")
+                .tag("uri", "/api/recipe/{id}")
+                .summary();
+        assertThat(replySize.count()).isEqualTo(1L);
+        assertThat(replySize.totalAmount()).isEqualTo((double) response.getByteBuffer().remaining());
+    }
+
+    @Test
+    void givenCheckoutsOutsideOfARequest_whenTheyEnd_thenRecordTheirWaitByOutcome() {
+        //when
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(SERVER_ID), 1, TimeUnit.MILLISECONDS.toNanos(3)));
+        listener.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(SERVER_ID, 2,
+                ConnectionCheckOutFailedEvent.Reason.TIMEOUT, TimeUnit.SECONDS.toNanos(2)));
+
+        //then
+        Timer checkedOut = meterRegistry.get(MongoRequestMetricsListener.CHECKOUT)
+                .tag("outcome", "SUCCESS")
+                .tag("uri", MongoRequestMetricsListener.NO_URI)
+                .timer();
+        Timer timedOut = meterRegistry.get(MongoRequestMetricsListener.CHECKOUT).tag("outcome", "TIMEOUT").timer();
+        assertThat(checkedOut.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(3.0);
+        assertThat(timedOut.count()).isEqualTo(1L);
+    }
+}
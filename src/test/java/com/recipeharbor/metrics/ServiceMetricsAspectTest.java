@@ -0,0 +1,72 @@
+package com.recipeharbor.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipeharbor.mapper.RecipeMapper;
+import com.recipeharbor.service.IRecipeTransferService;
+import com.recipeharbor.service.impl.RecipeTransferServiceImpl;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private IRecipeTransferService recipeTransferService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new RecipeTransferServiceImpl(mock(MongoTemplate.class),
+                new RecipeMapper(), new ObjectMapper(), null, 10, 10));
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        recipeTransferService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void givenServiceCalls_whenTheySucceed_thenRecordThemInTheSuccessTimer() throws IOException {
+        //when
+        recipeTransferService.importRecipes(new ByteArrayInputStream(new byte[0]));
+        recipeTransferService.importRecipes(new ByteArrayInputStream(new byte[0]));
+
+        //then
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.TIMER)
+                .tag("service", "RecipeTransferServiceImpl")
+                .tag("method", "importRecipes")
+                .tag("outcome", "SUCCESS")
+                .timer();
+        assertThat(timer.count()).isEqualTo(2L);
+    }
+
+    @Test
+    void givenServiceCall_whenItThrows_thenRecordItInTheErrorTimerOfTheException() {
+        //given
+        InputStream failingStream = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+
+        //when
+        Assertions.assertThrows(IOException.class, () -> recipeTransferService.importRecipes(failingStream));
+
+        //then
+        Timer timer = meterRegistry.get(ServiceMetricsAspect.TIMER)
+                .tag("method", "importRecipes")
+                .tag("outcome", "ERROR")
+                .tag("exception", "IOException")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1L);
+    }
+}
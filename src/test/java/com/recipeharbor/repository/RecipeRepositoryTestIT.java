@@ -1,7 +1,6 @@
 package com.recipeharbor.repository;
 
 import com.recipeharbor.config.AbstractContainerBaseTest;
-import com.recipeharbor.config.MongoConfig;
 import com.recipeharbor.config.MongoTestConfig;
 import com.recipeharbor.controller.RecipeDtoTestDataBuilder;
 import com.recipeharbor.dto.RecipeDto;
@@ -28,7 +27,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataMongoTest
-@Import({MongoConfig.class, MongoTestConfig.class})
+@Import(MongoTestConfig.class)
 @Slf4j
 @TestInstance(TestInstance.Lifecycle.PER_METHOD)
 class RecipeRepositoryTestIT extends AbstractContainerBaseTest {
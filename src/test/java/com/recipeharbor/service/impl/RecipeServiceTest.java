@@ -1,31 +1,74 @@
 package com.recipeharbor.service.impl;
 
 import com.mongodb.client.result.DeleteResult;
+import com.recipeharbor.cache.BoundedCache;
 import com.recipeharbor.controller.RecipeDtoTestDataBuilder;
+import com.recipeharbor.dto.BatchDeleteResultDto;
+import com.recipeharbor.dto.BatchItemResultDto;
+import com.recipeharbor.dto.Ingredient;
+import com.recipeharbor.dto.PantrySearchDto;
 import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.dto.RecipePatchDto;
 import com.recipeharbor.dto.SearchCriteriaDto;
 import com.recipeharbor.entity.Recipe;
 import com.recipeharbor.entity.Steps;
+import com.recipeharbor.exception.InvalidBatchRequestException;
+import com.recipeharbor.exception.InvalidFieldsRequestException;
+import com.recipeharbor.exception.InvalidPatchRequestException;
+import com.recipeharbor.exception.InvalidSearchRequestException;
 import com.recipeharbor.exception.RecipeNotFoundException;
+import com.recipeharbor.exception.RecipeAlreadyExistsException;
+import com.recipeharbor.exception.RecipeVersionConflictException;
 import com.recipeharbor.mapper.RecipeMapper;
 import com.recipeharbor.repository.RecipeRepository;
+import com.recipeharbor.service.RecipeFields;
+import com.recipeharbor.service.RecipeStamp;
+import com.recipeharbor.service.event.RecipeChangedEvent;
+import com.recipeharbor.service.search.CountMode;
+import com.recipeharbor.service.search.CursorSlice;
+import com.recipeharbor.service.search.FindSearchExecutor;
+import com.recipeharbor.service.search.IngredientIndex;
+import com.recipeharbor.service.search.PantryAggregation;
+import com.recipeharbor.service.search.RecipeDtoReader;
+import com.recipeharbor.service.search.RecipeSearchQueryBuilder;
+import com.recipeharbor.service.search.SearchCountCache;
+import com.recipeharbor.service.search.SearchCriteriaKey;
+import com.recipeharbor.service.search.SearchCursor;
+import com.recipeharbor.service.search.SearchMetrics;
+import com.recipeharbor.service.search.SearchResultCache;
+import jakarta.validation.Validation;
+import org.bson.Document;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,14 +81,41 @@ class RecipeServiceTest {
     private RecipeMapper recipeMapper;
     @Mock
     private MongoTemplate mongoTemplate;
-    @InjectMocks
+    @Mock
+    private SearchCountCache searchCountCache;
+    @Mock
+    private RecipeDtoReader recipeDtoReader;
+    @Mock
+    private SearchMetrics searchMetrics;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private IngredientIndex ingredientIndex;
     private RecipeServiceImpl recipeService;
+    private final List<Object> publishedEvents = new ArrayList<>();
     private RecipeDto recipeDto;
     private Recipe recipe;
 
     @BeforeEach
     void setUp() {
 
+        SearchResultCache searchResultCache = new SearchResultCache(
+                new BoundedCache<>("search", 100, 60_000, 0, Runnable::run), true);
+        // enabled but not built until a test rebuilds it, so searches go to Mongo by default
+        ingredientIndex = new IngredientIndex(mongoTemplate, Runnable::run, event -> { }, true, false, false);
+        recipeService = new RecipeServiceImpl(recipeRepository, recipeMapper, mongoTemplate, searchCountCache,
+                new FindSearchExecutor(mongoTemplate, null), new RecipeSearchQueryBuilder(),
+                new BoundedCache<>("recipes", 100, 60_000, 0, Runnable::run),
+                searchResultCache, event -> {
+                    publishedEvents.add(event);
+                    searchResultCache.onRecipeChanged((RecipeChangedEvent) event);
+                    ingredientIndex.onRecipeChanged((RecipeChangedEvent) event);
+                }, ingredientIndex, new PantryAggregation(mongoTemplate),
+                new RecipeBulkWriter(mongoTemplate, Validation.buildDefaultValidatorFactory().getValidator(), event -> { }),
+                recipeDtoReader, searchMetrics);
+        ReflectionTestUtils.setField(recipeService, "maxBatchSize", 10);
+
         recipeDto = recipeDto = RecipeDtoTestDataBuilder
                 .buildRecipeDto(null,
                         "Orange and Tomato Juice",
@@ -86,6 +156,22 @@ class RecipeServiceTest {
 
     }
 
+    @Test
+    void givenExistingRecipeId_whenCreateRecipeInvoked_thenThrowsRecipeAlreadyExists() {
+
+        //given
+        when(recipeMapper.recipeDtoToRecipeEntity(any(RecipeDto.class))).thenReturn(recipe);
+        when(recipeRepository.save(any(Recipe.class))).thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        //when
+        Assertions.assertThrows(RecipeAlreadyExistsException.class, () -> {
+            recipeService.createRecipe(recipeDto);
+        });
+        //then
+        verify(recipeMapper, never()).recipeEntityToRecipeDto(any(Recipe.class));
+        assertThat(publishedEvents.isEmpty()).isTrue();
+    }
+
     @Test
     void givenRecipeId_whenGetRecipeInvoked_thenReturnRecipeFound() {
 
@@ -95,13 +181,91 @@ class RecipeServiceTest {
         when(recipeMapper.recipeEntityToRecipeDto(any(Recipe.class))).thenReturn(recipeDto);
 
         //when
-        RecipeDto fetchedRecipe = recipeService.getRecipeById(RECIPE_ID);
+        RecipeDto fetchedRecipe = recipeService.getRecipeById(RECIPE_ID, RecipeFields.ALL);
 
         //then
         assertThat(fetchedRecipe).isNotNull();
         assertThat(fetchedRecipe.getId()).isEqualTo(RECIPE_ID);
     }
 
+    @Test
+    void givenRecipeFetchedOnce_whenGetRecipeInvokedAgain_thenServeFromCache() {
+
+        //given
+        when(recipeRepository.findById(RECIPE_ID)).thenReturn(Optional.of(recipe));
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+
+        //when
+        recipeService.getRecipeById(RECIPE_ID, RecipeFields.ALL);
+        recipeService.getRecipeById(RECIPE_ID, RecipeFields.ALL);
+
+        //then
+        verify(recipeRepository, times(1)).findById(RECIPE_ID);
+    }
+
+    @Test
+    void givenCachedRecipe_whenRecipeDeleted_thenNextGetReturnsRecipeNotFound() {
+
+        //given
+        when(recipeRepository.findById(RECIPE_ID)).thenReturn(Optional.of(recipe), Optional.empty());
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+        when(mongoTemplate.remove(any(Query.class), eq(Recipe.class))).thenReturn(DeleteResult.acknowledged(1));
+        recipeService.getRecipeById(RECIPE_ID, RecipeFields.ALL);
+
+        //when
+        recipeService.deleteRecipe(RECIPE_ID);
+
+        //then
+        Assertions.assertThrows(RecipeNotFoundException.class, () -> {
+            recipeService.getRecipeById(RECIPE_ID, RecipeFields.ALL);
+        });
+    }
+
+    @Test
+    void givenUncachedRecipe_whenGetRecipeStampInvoked_thenReadOnlyVersionAndDate() {
+
+        //given
+        Recipe projectedRecipe = new Recipe();
+        projectedRecipe.setVersion(3L);
+        projectedRecipe.setUpdatedAt(LocalDateTime.of(2024, 3, 6, 12, 30));
+        when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class))).thenReturn(projectedRecipe);
+
+        //when
+        RecipeStamp recipeStamp = recipeService.getRecipeStamp(RECIPE_ID);
+
+        //then
+        assertThat(recipeStamp).isEqualTo(new RecipeStamp(3L, LocalDateTime.of(2024, 3, 6, 12, 30)));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findOne(query.capture(), eq(Recipe.class));
+        assertThat(query.getValue().getFieldsObject().keySet()).isEqualTo(Set.of("version", "updatedAt"));
+        verify(recipeRepository, never()).findById(RECIPE_ID);
+    }
+
+    @Test
+    void givenCachedRecipeChangedElsewhere_whenGetRecipeStampInvoked_thenReturnStoredVersionAndReloadRecipe() {
+
+        //given
+        recipe.setVersion(1L);
+        Recipe changedRecipe = Recipe.builder().name("Orange Juice").build();
+        changedRecipe.setId(RECIPE_ID);
+        changedRecipe.setVersion(2L);
+        when(recipeRepository.findById(RECIPE_ID)).thenReturn(Optional.of(recipe), Optional.of(changedRecipe));
+        when(recipeMapper.recipeEntityToRecipeDto(any(Recipe.class))).thenReturn(recipeDto);
+        recipeService.getRecipeById(RECIPE_ID, RecipeFields.ALL);
+        Recipe projectedRecipe = new Recipe();
+        projectedRecipe.setVersion(2L);
+        when(mongoTemplate.findOne(any(Query.class), eq(Recipe.class))).thenReturn(projectedRecipe);
+
+        //when
+        RecipeStamp recipeStamp = recipeService.getRecipeStamp(RECIPE_ID);
+        recipeService.getRecipeById(RECIPE_ID, RecipeFields.ALL);
+
+        //then
+        assertThat(recipeStamp.version()).isEqualTo(2L);
+        verify(recipeRepository, times(2)).findById(RECIPE_ID);
+        verify(recipeMapper).recipeEntityToRecipeDto(changedRecipe);
+    }
+
     @Test
     void givenRecipeId_whenGetRecipeInvoked_thenReturnRecipeNotFound() {
 
@@ -109,7 +273,7 @@ class RecipeServiceTest {
         when(recipeRepository.findById(RECIPE_ID)).thenReturn(Optional.empty());
         //when
         Assertions.assertThrows(RecipeNotFoundException.class, () -> {
-            recipeService.getRecipeById(RECIPE_ID);
+            recipeService.getRecipeById(RECIPE_ID, RecipeFields.ALL);
         });
         //then
         verify(recipeMapper, never()).recipeEntityToRecipeDto(any(Recipe.class));
@@ -119,9 +283,6 @@ class RecipeServiceTest {
     void givenRecipeDTOAndRecipeId_whenUpdatingRecipe_thenReturnUpdatedRecipe() {
 
         //given
-        when(recipeRepository.findById(RECIPE_ID)).thenReturn(Optional.of(recipe));
-
-        //update the recipe
         Recipe updatedRecipe = Recipe.builder()
                 .id(RECIPE_ID)
                 .name(recipeDto.getName())
@@ -131,7 +292,8 @@ class RecipeServiceTest {
                 .servings(3)
                 .build();
         when(recipeMapper.recipeDtoToRecipeEntity(any(RecipeDto.class))).thenReturn(updatedRecipe);
-        when(recipeRepository.save(any(Recipe.class))).thenReturn(updatedRecipe);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Recipe.class)))
+                .thenReturn(updatedRecipe);
 
         RecipeDto updatedRecipeDto = RecipeDto.builder()
                 .id(updatedRecipe.getId())
@@ -145,7 +307,7 @@ class RecipeServiceTest {
         when(recipeMapper.recipeEntityToRecipeDto(any(Recipe.class))).thenReturn(updatedRecipeDto);
 
         //when
-        RecipeDto latestRecipe = recipeService.updateRecipe(RECIPE_ID, recipeDto);
+        RecipeDto latestRecipe = recipeService.updateRecipe(RECIPE_ID, recipeDto, null);
 
         //then
         assertThat(latestRecipe).isNotNull();
@@ -157,14 +319,71 @@ class RecipeServiceTest {
     void givenRecipeDTOAndRecipeId_whenUpdatingRecipe_thenThrowsRecipeNotFoundError() {
 
         //given
-        when(recipeRepository.findById(RECIPE_ID)).thenReturn(Optional.empty());
+        when(recipeMapper.recipeDtoToRecipeEntity(any(RecipeDto.class))).thenReturn(recipe);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Recipe.class)))
+                .thenReturn(null);
         //when
         Assertions.assertThrows(RecipeNotFoundException.class, () -> {
-            recipeService.updateRecipe(RECIPE_ID, recipeDto);
+            recipeService.updateRecipe(RECIPE_ID, recipeDto, null);
         });
         //then
-        verify(recipeMapper, never()).recipeDtoToRecipeEntity(any(RecipeDto.class));
         verify(recipeRepository, never()).save(any(Recipe.class));
+        verify(recipeMapper, never()).recipeEntityToRecipeDto(any(Recipe.class));
+    }
+
+    @Test
+    void givenStaleVersion_whenUpdatingRecipe_thenThrowsRecipeVersionConflict() {
+
+        //given
+        when(recipeMapper.recipeDtoToRecipeEntity(any(RecipeDto.class))).thenReturn(recipe);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Recipe.class)))
+                .thenReturn(null);
+        when(mongoTemplate.exists(any(Query.class), eq(Recipe.class))).thenReturn(true);
+        //when
+        Assertions.assertThrows(RecipeVersionConflictException.class, () -> {
+            recipeService.updateRecipe(RECIPE_ID, recipeDto, 2L);
+        });
+        //then
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class), eq(Recipe.class));
+        assertThat(query.getValue().getQueryObject().get("version")).isEqualTo(2L);
+    }
+
+    @Test
+    void givenSomeFields_whenPatchingRecipe_thenSetOnlyThoseFieldsAndPushAdditions() {
+
+        //given
+        RecipePatchDto recipePatchDto = RecipePatchDto.builder()
+                .servings(4)
+                .addIngredients(List.of(Ingredient.builder().name("Basil").build()))
+                .build();
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Recipe.class)))
+                .thenReturn(recipe);
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+
+        //when
+        RecipeDto patchedRecipe = recipeService.patchRecipe(RECIPE_ID, recipePatchDto, null);
+
+        //then
+        assertThat(patchedRecipe).isEqualTo(recipeDto);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(Recipe.class));
+        Document setFields = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(setFields.keySet()).isEqualTo(Set.of("servings", "updatedAt"));
+        assertThat(update.getValue().getUpdateObject().get("$push", Document.class).keySet()).isEqualTo(Set.of("ingredients"));
+    }
+
+    @Test
+    void givenNoFields_whenPatchingRecipe_thenThrowsInvalidPatchRequest() {
+
+        //given
+        RecipePatchDto recipePatchDto = RecipePatchDto.builder().build();
+        //when
+        Assertions.assertThrows(InvalidPatchRequestException.class, () -> {
+            recipeService.patchRecipe(RECIPE_ID, recipePatchDto, null);
+        });
+        //then
+        verify(mongoTemplate, never()).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(Recipe.class));
     }
 
     @Test
@@ -245,7 +464,7 @@ class RecipeServiceTest {
 
 
         //when
-        Page<RecipeDto> recipeDtos = recipeService.searchRecipe(searchCriteriaDto, 0, 10);
+        Page<RecipeDto> recipeDtos = recipeService.searchRecipe(searchCriteriaDto, 0, 10, RecipeFields.ALL);
 
         //then
         assertThat(recipeDtos).isNotNull();
@@ -301,7 +520,7 @@ class RecipeServiceTest {
         when(recipeMapper.recipeEntityToRecipeDto(any(Recipe.class))).thenReturn(recipeDto2);
 
         //when
-        Page<RecipeDto> recipeDtos = recipeService.searchRecipe(searchCriteriaDto, 0, 10);
+        Page<RecipeDto> recipeDtos = recipeService.searchRecipe(searchCriteriaDto, 0, 10, RecipeFields.ALL);
 
         //then
         assertThat(recipeDtos).isNotNull();
@@ -364,7 +583,7 @@ class RecipeServiceTest {
 
 
         //when
-        Page<RecipeDto> recipeDtos = recipeService.searchRecipe(searchCriteriaDto, page, size);
+        Page<RecipeDto> recipeDtos = recipeService.searchRecipe(searchCriteriaDto, page, size, RecipeFields.ALL);
 
         //then
         assertThat(recipeDtos).isNotNull();
@@ -372,4 +591,350 @@ class RecipeServiceTest {
         assertThat(recipeDtos.getNumberOfElements()).isEqualTo(1);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenSearchCriteriaWithText_whenSearchingRecipes_thenQueryUsesTextIndexAndReturnsScores() {
+
+        //given
+        recipe.setScore(1.5f);
+        recipeDto.setScore(1.5f);
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .text("oranges")
+                .vegetarian(true)
+                .sortByRelevance(true)
+                .build();
+        when(mongoTemplate.count(any(Query.class), eq(Recipe.class))).thenReturn(1L);
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class))).thenReturn(List.of(recipe));
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+
+        //when
+        Page<RecipeDto> recipeDtos = recipeService.searchRecipe(searchCriteriaDto, 0, 10, RecipeFields.ALL);
+
+        //then
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(Recipe.class));
+        Query executedQuery = queryCaptor.getValue();
+        assertThat(executedQuery).isInstanceOf(TextQuery.class);
+        assertThat(executedQuery.getQueryObject().containsKey("$text")).isTrue();
+        assertThat(executedQuery.getQueryObject().get("vegetarian")).isEqualTo(true);
+        assertThat(executedQuery.getSortObject().containsKey("score")).isTrue();
+        assertThat(recipeDtos.getContent().get(0).getScore()).isEqualTo(1.5f);
+    }
+
+    @Test
+    void givenSearchCriteriaAndCursor_whenSearchingRecipesByCursor_thenReturnSliceWithNextCursor() {
+
+        //given
+        Recipe recipe2 = Recipe.builder()
+                .id("75e841e36ad9c545baf4c9e")
+                .name("Another recipe of oranges")
+                .vegetarian(true)
+                .build();
+        recipe.setCreatedAt(LocalDateTime.of(2024, 3, 6, 10, 0));
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .vegetarian(true)
+                .build();
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class))).thenReturn(List.of(recipe, recipe2));
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+
+        //when
+        CursorSlice<RecipeDto> recipeDtos = recipeService.searchRecipeByCursor(searchCriteriaDto, "", 1, RecipeFields.ALL);
+
+        //then
+        assertThat(recipeDtos.getNumberOfElements()).isEqualTo(1);
+        assertThat(recipeDtos.hasNext()).isTrue();
+        assertThat(SearchCursor.decode(recipeDtos.getNextCursor()).getId()).isEqualTo(RECIPE_ID);
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Recipe.class));
+    }
+
+    @Test
+    void givenTextSortedByRelevance_whenSearchingRecipesByCursor_thenThrowsInvalidSearchRequest() {
+
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .text("oranges")
+                .sortByRelevance(true)
+                .build();
+
+        //when
+        Assertions.assertThrows(InvalidSearchRequestException.class, () -> {
+            recipeService.searchRecipeByCursor(searchCriteriaDto, "", 10, RecipeFields.ALL);
+        });
+        //then
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Recipe.class));
+    }
+
+    @Test
+    void givenCountModeNone_whenSearchingRecipes_thenReturnSliceWithoutCounting() {
+
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .vegetarian(true)
+                .build();
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class))).thenReturn(List.of(recipe, recipe));
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+
+        //when
+        Slice<RecipeDto> recipeDtos = recipeService.searchRecipe(searchCriteriaDto, 0, 1, CountMode.NONE, RecipeFields.ALL);
+
+        //then
+        assertThat(recipeDtos).isNotInstanceOf(Page.class);
+        assertThat(recipeDtos.getNumberOfElements()).isEqualTo(1);
+        assertThat(recipeDtos.hasNext()).isTrue();
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Recipe.class));
+    }
+
+    @Test
+    void givenSelectedFields_whenSearchingRecipes_thenReadOnlyThoseFields() {
+
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .vegetarian(true)
+                .build();
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class))).thenReturn(List.of(recipe));
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+
+        //when
+        recipeService.searchRecipe(searchCriteriaDto, 0, 1, CountMode.NONE, RecipeFields.parse("name, veg"));
+
+        //then
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Recipe.class));
+        assertThat(query.getValue().getFieldsObject().keySet()).isEqualTo(Set.of("id", "name", "vegetarian", "createdAt"));
+    }
+
+    @Test
+    void givenFastReadEnabled_whenSearchingRecipes_thenDecodeDtosWithoutTheEntity() {
+
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .vegetarian(true)
+                .build();
+        when(recipeDtoReader.isEnabled()).thenReturn(true);
+        when(recipeDtoReader.find(any(Query.class))).thenReturn(List.of(recipeDto, recipeDto));
+
+        //when
+        Slice<RecipeDto> recipeDtos = recipeService.searchRecipe(searchCriteriaDto, 0, 1, CountMode.NONE, RecipeFields.parse("name"));
+
+        //then
+        assertThat(recipeDtos.getNumberOfElements()).isEqualTo(1);
+        assertThat(recipeDtos.hasNext()).isTrue();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(recipeDtoReader).find(query.capture());
+        assertThat(query.getValue().getFieldsObject().keySet()).isEqualTo(Set.of("id", "name", "createdAt"));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Recipe.class));
+        verify(recipeMapper, never()).recipeEntityToRecipeDto(any());
+    }
+
+    @Test
+    void givenUnknownField_whenParsingFields_thenThrowsInvalidFieldsRequest() {
+
+        //when
+        Assertions.assertThrows(InvalidFieldsRequestException.class, () -> {
+            RecipeFields.parse("name,calories");
+        });
+    }
+
+    @Test
+    void givenCountModeEstimated_whenSearchingRecipes_thenReturnPageWithCachedCount() {
+
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .vegetarian(true)
+                .build();
+        when(searchCountCache.get(eq(SearchCriteriaKey.of(searchCriteriaDto)), any(LongSupplier.class))).thenReturn(42L);
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class))).thenReturn(List.of(recipe));
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+
+        //when
+        Slice<RecipeDto> recipeDtos = recipeService.searchRecipe(searchCriteriaDto, 0, 1, CountMode.ESTIMATED, RecipeFields.ALL);
+
+        //then
+        assertThat(recipeDtos).isInstanceOf(Page.class);
+        assertThat(((Page<RecipeDto>) recipeDtos).getTotalElements()).isEqualTo(42);
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Recipe.class));
+    }
+
+    @Test
+    void givenSearchedOnce_whenSameSearchInvokedAgain_thenServeFromCache() {
+
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .vegetarian(true)
+                .build();
+        SearchCriteriaDto sameSearchCriteriaDto = SearchCriteriaDto.builder()
+                .vegetarian(true)
+                .build();
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class))).thenReturn(List.of(recipe, recipe));
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+
+        //when
+        recipeService.searchRecipe(searchCriteriaDto, 0, 1, CountMode.NONE, RecipeFields.ALL);
+        Slice<RecipeDto> recipeDtos = recipeService.searchRecipe(sameSearchCriteriaDto, 0, 1, CountMode.NONE, RecipeFields.ALL);
+
+        //then
+        assertThat(recipeDtos.getNumberOfElements()).isEqualTo(1);
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Recipe.class));
+    }
+
+    @Test
+    void givenCachedSearch_whenRecipeCreated_thenNextSearchQueriesDatabase() {
+
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .vegetarian(true)
+                .build();
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class))).thenReturn(List.of(recipe, recipe));
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+        when(recipeMapper.recipeDtoToRecipeEntity(recipeDto)).thenReturn(recipe);
+        when(recipeRepository.save(recipe)).thenReturn(recipe);
+        recipeService.searchRecipe(searchCriteriaDto, 0, 1, CountMode.NONE, RecipeFields.ALL);
+
+        //when
+        recipeService.createRecipe(recipeDto);
+        recipeService.searchRecipe(searchCriteriaDto, 0, 1, CountMode.NONE, RecipeFields.ALL);
+
+        //then
+        verify(mongoTemplate, times(2)).find(any(Query.class), eq(Recipe.class));
+    }
+
+    @Test
+    void givenIngredientIndexBuilt_whenSearchingByIngredients_thenFetchOnlyThePageById() {
+
+        //given
+        Recipe recipe2 = Recipe.builder()
+                .id("75e841e36ad9c545baf4c9e")
+                .name("Another recipe of oranges")
+                .ingredients(recipe.getIngredients())
+                .build();
+        when(mongoTemplate.stream(any(Query.class), eq(Recipe.class))).thenReturn(Stream.of(recipe, recipe2));
+        ingredientIndex.rebuild();
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .excludeIngredients(List.of("Chicken"))
+                .build();
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class))).thenReturn(List.of(recipe2));
+        when(recipeMapper.recipeEntityToRecipeDto(recipe2)).thenReturn(recipeDto);
+        ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.forClass(Query.class);
+
+        //when
+        Page<RecipeDto> recipeDtos = recipeService.searchRecipe(searchCriteriaDto, 0, 1, RecipeFields.ALL);
+
+        //then
+        verify(mongoTemplate).find(queryCaptor.capture(), eq(Recipe.class));
+        verify(mongoTemplate, never()).count(any(Query.class), eq(Recipe.class));
+        assertThat(queryCaptor.getValue().getQueryObject().toJson()).contains("75e841e36ad9c545baf4c9e");
+        assertThat(recipeDtos.getTotalElements()).isEqualTo(2);
+        assertThat(recipeDtos.getNumberOfElements()).isEqualTo(1);
+    }
+
+    @Test
+    void givenIngredientIndexBuilt_whenSearchingPantry_thenReturnRecipesWithMissingIngredients() {
+
+        //given
+        when(mongoTemplate.stream(any(Query.class), eq(Recipe.class))).thenReturn(Stream.of(recipe));
+        ingredientIndex.rebuild();
+        PantrySearchDto pantrySearchDto = PantrySearchDto.builder()
+                .ingredients(List.of("Oranges", "Sugar"))
+                .maxMissing(1)
+                .build();
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class))).thenReturn(List.of(recipe));
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+
+        //when
+        Page<RecipeDto> recipeDtos = recipeService.searchPantry(pantrySearchDto, 0, 10);
+
+        //then
+        assertThat(recipeDtos.getTotalElements()).isEqualTo(1);
+        assertThat(recipeDtos.getContent().get(0).getMissingIngredients()).isEqualTo(List.of("Tomatoes"));
+    }
+
+    @Test
+    void givenValidAndInvalidRecipes_whenCreatingRecipesInBatch_thenInsertValidOnesWithOneBulkWrite() {
+
+        //given
+        RecipeDto invalidRecipeDto = RecipeDto.builder().name("Jam").build();
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+        when(recipeMapper.recipeDtoToRecipeEntity(recipeDto)).thenReturn(recipe);
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+
+        //when
+        List<BatchItemResultDto> results = recipeService.createRecipes(List.of(recipeDto, invalidRecipeDto));
+
+        //then
+        verify(bulkOperations, times(1)).execute();
+        assertThat(results.get(0).getStatus()).isEqualTo(201);
+        assertThat(results.get(0).getRecipe()).isEqualTo(recipeDto);
+        assertThat(results.get(1).getStatus()).isEqualTo(400);
+        assertThat(results.get(1).getError()).contains("ingredients");
+    }
+
+    @Test
+    void givenKnownAndUnknownIds_whenFetchingRecipesInBatch_thenReturnPerItemStatusInRequestOrder() {
+
+        //given
+        when(mongoTemplate.find(any(Query.class), eq(Recipe.class))).thenReturn(List.of(recipe));
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+
+        //when
+        List<BatchItemResultDto> results = recipeService.getRecipesByIds(List.of("unknown", RECIPE_ID));
+
+        //then
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Recipe.class));
+        assertThat(results.get(0).getStatus()).isEqualTo(404);
+        assertThat(results.get(1).getStatus()).isEqualTo(200);
+        assertThat(results.get(1).getRecipe()).isEqualTo(recipeDto);
+    }
+
+    @Test
+    void givenKnownAndUnknownIds_whenDeletingRecipesInBatch_thenRemoveThemWithOneCommandAndReportTheCount() {
+
+        //given
+        when(mongoTemplate.remove(any(Query.class), eq(Recipe.class))).thenReturn(DeleteResult.acknowledged(1));
+
+        //when
+        BatchDeleteResultDto result = recipeService.deleteRecipes(List.of(RECIPE_ID, "unknown", RECIPE_ID));
+
+        //then
+        verify(mongoTemplate, times(1)).remove(any(Query.class), eq(Recipe.class));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Recipe.class));
+        assertThat(result.getRequested()).isEqualTo(2);
+        assertThat(result.getDeleted()).isEqualTo(1L);
+        assertThat(publishedEvents.size()).isEqualTo(2);
+    }
+
+    @Test
+    void givenIdsDeletedElsewhere_whenDeletingRecipesInBatch_thenStillDropThemFromTheCaches() {
+
+        //given
+        when(recipeRepository.findById(RECIPE_ID)).thenReturn(Optional.of(recipe), Optional.empty());
+        when(recipeMapper.recipeEntityToRecipeDto(recipe)).thenReturn(recipeDto);
+        when(mongoTemplate.remove(any(Query.class), eq(Recipe.class))).thenReturn(DeleteResult.acknowledged(0));
+        recipeService.getRecipeById(RECIPE_ID, RecipeFields.ALL);
+
+        //when
+        BatchDeleteResultDto result = recipeService.deleteRecipes(List.of(RECIPE_ID));
+
+        //then
+        Assertions.assertThrows(RecipeNotFoundException.class, () -> {
+            recipeService.getRecipeById(RECIPE_ID, RecipeFields.ALL);
+        });
+        assertThat(result.getDeleted()).isEqualTo(0L);
+        assertThat(publishedEvents.size()).isEqualTo(1);
+        assertThat(((RecipeChangedEvent) publishedEvents.get(0)).getType()).isEqualTo(RecipeChangedEvent.Type.DELETED);
+    }
+
+    @Test
+    void givenTooManyIds_whenFetchingRecipesInBatch_thenThrowsInvalidBatchRequest() {
+
+        //given
+        List<String> recipeIds = Collections.nCopies(11, RECIPE_ID);
+
+        //when
+        Assertions.assertThrows(InvalidBatchRequestException.class, () -> {
+            recipeService.getRecipesByIds(recipeIds);
+        });
+        //then
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Recipe.class));
+    }
+}
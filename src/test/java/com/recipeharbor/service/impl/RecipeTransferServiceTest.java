@@ -0,0 +1,173 @@
+package com.recipeharbor.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.recipeharbor.controller.RecipeDtoTestDataBuilder;
+import com.recipeharbor.dto.ImportReportDto;
+import com.recipeharbor.dto.RecipeDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.mapper.RecipeMapper;
+import com.recipeharbor.service.event.RecipesCreatedEvent;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecipeTransferServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<Object> publishedEvents = new ArrayList<>();
+    private RecipeTransferServiceImpl recipeTransferService;
+    private RecipeDto recipeDto;
+
+    @BeforeEach
+    void setUp() {
+        RecipeBulkWriter recipeBulkWriter = new RecipeBulkWriter(mongoTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(), publishedEvents::add);
+        recipeTransferService = new RecipeTransferServiceImpl(mongoTemplate, new RecipeMapper(), objectMapper,
+                recipeBulkWriter, 2, 10);
+
+        recipeDto = RecipeDtoTestDataBuilder
+                .buildRecipeDto(null,
+                        "Orange and Tomato Juice",
+                        2,
+                        List.of(RecipeDtoTestDataBuilder.buildIngredient("Oranges", 2, "cups"),
+                                RecipeDtoTestDataBuilder.buildIngredient("Tomatoes", 3, "cups")),
+                        List.of(RecipeDtoTestDataBuilder.buildInstructions(1, "Blend the oranges and tomatoes")),
+                        true);
+    }
+
+    @Test
+    void givenValidAndInvalidLines_whenImportingRecipes_thenWriteValidOnesInBatchesAndReportOthers() throws Exception {
+        //given
+        String validLine = objectMapper.writeValueAsString(recipeDto);
+        recipeDto.setName("Jam");
+        String invalidLine = objectMapper.writeValueAsString(recipeDto);
+        String body = String.join("\n", validLine, "{not json", "", invalidLine, validLine, validLine);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        //when
+        ImportReportDto importReport = recipeTransferService.importRecipes(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        //then
+        verify(bulkOperations, times(2)).execute();
+        assertThat(importReport.getLines()).isEqualTo(5);
+        assertThat(importReport.getImported()).isEqualTo(3);
+        assertThat(importReport.getFailed()).isEqualTo(2);
+        assertThat(importReport.getErrors().get(0).getLine()).isEqualTo(2);
+        assertThat(importReport.getErrors().get(1).getLine()).isEqualTo(4);
+        assertThat(importReport.getErrors().get(1).getMessage()).contains("name");
+        assertThat(publishedEvents.size()).isEqualTo(2);
+        assertThat(((RecipesCreatedEvent) publishedEvents.get(0)).getRecipes().size()).isEqualTo(2);
+        assertThat(((RecipesCreatedEvent) publishedEvents.get(1)).getRecipes().size()).isEqualTo(1);
+        assertThat(((RecipesCreatedEvent) publishedEvents.get(0)).getRecipes().get(0).getId()).isNotNull();
+    }
+
+    @Test
+    void givenNullAndEmptyObjectLines_whenImportingRecipes_thenRejectThemAndImportTheOthers() throws Exception {
+        //given
+        String validLine = objectMapper.writeValueAsString(recipeDto);
+        String body = String.join("\n", "null", "{}", validLine);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        //when
+        ImportReportDto importReport = recipeTransferService.importRecipes(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        //then
+        assertThat(importReport.getLines()).isEqualTo(3);
+        assertThat(importReport.getImported()).isEqualTo(1);
+        assertThat(importReport.getFailed()).isEqualTo(2);
+        assertThat(importReport.getErrors().get(0).getLine()).isEqualTo(1);
+        assertThat(importReport.getErrors().get(0).getMessage()).contains("Malformed recipe");
+        assertThat(importReport.getErrors().get(1).getLine()).isEqualTo(2);
+    }
+
+    @Test
+    void givenRecipes_whenExportingRecipes_thenWriteOneRecipePerLine() throws Exception {
+        //given
+        Recipe recipe = new RecipeMapper().recipeDtoToRecipeEntity(recipeDto);
+        when(mongoTemplate.stream(any(Query.class), eq(Recipe.class))).thenReturn(Stream.of(recipe, recipe));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //when
+        recipeTransferService.exportRecipes(outputStream);
+
+        //then
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines.length).isEqualTo(2);
+        assertThat(objectMapper.readValue(lines[1], RecipeDto.class).getName()).isEqualTo("Orange and Tomato Juice");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenExportedRecipes_whenImportingThem_thenKeepTheirDatesAndVersions() throws Exception {
+        //given
+        LocalDateTime createdAt = LocalDateTime.of(2023, 5, 1, 10, 30);
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 2, 3, 8, 15);
+        Recipe exported = new RecipeMapper().recipeDtoToRecipeEntity(recipeDto);
+        exported.setId("65e841e36ad9c545baf4c9ef");
+        exported.setCreatedAt(createdAt);
+        exported.setUpdatedAt(updatedAt);
+        exported.setVersion(7L);
+        when(mongoTemplate.stream(any(Query.class), eq(Recipe.class))).thenReturn(Stream.of(exported));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        recipeTransferService.exportRecipes(outputStream);
+        String withoutCreatedAt = objectMapper.writeValueAsString(new RecipeMapper().recipeEntityToRecipeDto(exported));
+        String withoutDates = objectMapper.writeValueAsString(recipeDto);
+        String body = String.join("\n", outputStream.toString(StandardCharsets.UTF_8).trim(), withoutCreatedAt, withoutDates);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class)).thenReturn(bulkOperations);
+        // the import reuses its batch list once written, each batch is copied as it is inserted
+        List<List<Recipe>> inserted = new ArrayList<>();
+        when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            inserted.add(new ArrayList<>((List<Recipe>) invocation.getArgument(0)));
+            return bulkOperations;
+        });
+
+        //when
+        recipeTransferService.importRecipes(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        //then
+        assertThat(inserted.size()).isEqualTo(2);
+        Recipe imported = inserted.get(0).get(0);
+        assertThat(imported.getId()).isEqualTo("65e841e36ad9c545baf4c9ef");
+        assertThat(imported.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(imported.getUpdatedAt()).isEqualTo(updatedAt);
+        assertThat(imported.getVersion()).isEqualTo(7L);
+        Recipe importedWithoutCreatedAt = inserted.get(0).get(1);
+        assertThat(importedWithoutCreatedAt.getCreatedAt()).isEqualTo(updatedAt);
+        assertThat(importedWithoutCreatedAt.getVersion()).isEqualTo(7L);
+        Recipe importedWithoutDates = inserted.get(1).get(0);
+        assertThat(importedWithoutDates.getCreatedAt()).isNotNull();
+        assertThat(importedWithoutDates.getUpdatedAt()).isEqualTo(importedWithoutDates.getCreatedAt());
+        assertThat(importedWithoutDates.getVersion()).isEqualTo(0L);
+    }
+}
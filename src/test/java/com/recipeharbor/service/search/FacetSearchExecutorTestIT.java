@@ -0,0 +1,88 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.config.AbstractContainerBaseTest;
+import com.recipeharbor.controller.RecipeDtoTestDataBuilder;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.index.SearchPlanInspector;
+import com.recipeharbor.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@DataMongoTest
+class FacetSearchExecutorTestIT extends AbstractContainerBaseTest {
+
+    @Autowired private RecipeRepository recipeRepository;
+    @Autowired private MongoTemplate mongoTemplate;
+
+    private FacetSearchExecutor facetSearchExecutor;
+    private FindSearchExecutor findSearchExecutor;
+
+    @BeforeEach
+    void setUp() {
+        recipeRepository.deleteAll();
+        SearchPlanInspector searchPlanInspector = new SearchPlanInspector(mongoTemplate, new RecipeSearchQueryBuilder());
+        facetSearchExecutor = new FacetSearchExecutor(mongoTemplate, searchPlanInspector);
+        findSearchExecutor = new FindSearchExecutor(mongoTemplate, searchPlanInspector);
+
+        IntStream.range(0, 5).forEach(i -> recipeRepository.save(Recipe.builder()
+                .name("Recipe " + i)
+                .vegetarian(i % 2 == 0)
+                .servings(2)
+                .ingredients(List.of(RecipeDtoTestDataBuilder.buildIngredient("Onions", 2, "cups")))
+                .instructions(List.of(RecipeDtoTestDataBuilder.buildInstructions(1, "Chop the onions")))
+                .build()));
+    }
+
+    @Test
+    void givenQueryAndPage_whenFindPageWithFacet_thenReturnSamePageAndTotalAsFindAndCount() {
+        //given
+        PageRequest pageable = PageRequest.of(1, 2, Sort.by("createdAt").descending().and(Sort.by("id").descending()));
+
+        //when
+        Page<Recipe> facetPage = facetSearchExecutor.findPage(new Query(Criteria.where("servings").is(2)), pageable);
+        Page<Recipe> findPage = findSearchExecutor.findPage(new Query(Criteria.where("servings").is(2)), pageable);
+
+        //then
+        assertThat(facetPage.getTotalElements()).isEqualTo(5);
+        assertThat(facetPage.getContent().stream().map(Recipe::getId).toList())
+                .isEqualTo(findPage.getContent().stream().map(Recipe::getId).toList());
+    }
+
+    @Test
+    void givenQueryWithoutMatches_whenFindPageWithFacet_thenReturnEmptyPage() {
+        //when
+        Page<Recipe> facetPage = facetSearchExecutor.findPage(new Query(Criteria.where("servings").is(7)), PageRequest.of(0, 10));
+
+        //then
+        assertThat(facetPage.getTotalElements()).isEqualTo(0);
+        assertThat(facetPage.getContent().isEmpty()).isTrue();
+    }
+
+    @Test
+    void givenPagedQuery_whenExplainingWithFacet_thenExplainTheAggregationThatRuns() {
+        //given
+        Query pagedQuery = new Query(Criteria.where("servings").is(2))
+                .with(PageRequest.of(1, 2, Sort.by("createdAt").descending().and(Sort.by("id").descending())));
+
+        //when
+        SearchPlanInspector.ExplainedExecution execution = facetSearchExecutor.explainExecution(pagedQuery);
+
+        //then
+        assertThat(execution.stages().contains("$facet")).isTrue();
+        assertThat(execution.docsExamined()).isEqualTo(5L);
+        assertThat(execution.returned()).isEqualTo(2L);
+    }
+}
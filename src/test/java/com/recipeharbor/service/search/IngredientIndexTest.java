@@ -0,0 +1,226 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.dto.Ingredient;
+import com.recipeharbor.dto.SearchCriteriaDto;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.service.event.RecipeChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IngredientIndexTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private IngredientIndex ingredientIndex;
+
+    @BeforeEach
+    void setUp() {
+        ingredientIndex = new IngredientIndex(mongoTemplate, Runnable::run, event -> { }, true, false, false);
+        // loaded oldest first, as the rebuild query sorts them
+        when(mongoTemplate.stream(any(Query.class), eq(Recipe.class))).thenReturn(Stream.of(
+                recipe("1", true, 2, "Onions", "Tomatoes"),
+                recipe("2", false, 4, "Onions", "Chicken"),
+                recipe("3", true, 2, "Carrots")));
+        ingredientIndex.rebuild();
+    }
+
+    @Test
+    void givenIncludedIngredients_whenSearching_thenReturnRecipesWithAnyOfThemNewestFirst() {
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .includeIngredients(List.of("Onions", "Carrots"))
+                .build();
+
+        //when
+        Optional<IngredientIndex.Hits> hits = ingredientIndex.search(searchCriteriaDto, 0, 10);
+
+        //then
+        assertThat(hits).isPresent();
+        assertThat(hits.get().ids()).containsExactly("3", "2", "1");
+        assertThat(hits.get().total()).isEqualTo(3);
+    }
+
+    @Test
+    void givenExcludedIngredientsAndVegetarian_whenSearching_thenReturnRecipesWithNoneOfThem() {
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .vegetarian(true)
+                .excludeIngredients(List.of("Tomatoes"))
+                .build();
+
+        //when
+        Optional<IngredientIndex.Hits> hits = ingredientIndex.search(searchCriteriaDto, 0, 10);
+
+        //then
+        assertThat(hits.get().ids()).containsExactly("3");
+    }
+
+    @Test
+    void givenOffset_whenSearching_thenSkipMatchesAndCountAll() {
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .includeIngredients(List.of("Onions"))
+                .build();
+
+        //when
+        Optional<IngredientIndex.Hits> hits = ingredientIndex.search(searchCriteriaDto, 1, 10);
+
+        //then
+        assertThat(hits.get().ids()).containsExactly("1");
+        assertThat(hits.get().total()).isEqualTo(2);
+    }
+
+    @Test
+    void givenKnownRecipe_whenSearchingAfterIt_thenReturnOlderMatches() {
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .excludeIngredients(List.of("Chicken"))
+                .build();
+
+        //when
+        Optional<IngredientIndex.Hits> hits = ingredientIndex.searchAfter(searchCriteriaDto, "3", 10);
+
+        //then
+        assertThat(hits.get().ids()).containsExactly("1");
+    }
+
+    @Test
+    void givenRecipeChanges_whenSearching_thenIndexReflectsThem() {
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .includeIngredients(List.of("Onions"))
+                .build();
+
+        //when
+        ingredientIndex.onRecipeChanged(RecipeChangedEvent.created(recipe("4", true, 1, "Onions")));
+        ingredientIndex.onRecipeChanged(RecipeChangedEvent.updated(recipe("2", false, 4, "Chicken")));
+        ingredientIndex.onRecipeChanged(RecipeChangedEvent.deleted("1"));
+        Optional<IngredientIndex.Hits> hits = ingredientIndex.search(searchCriteriaDto, 0, 10);
+
+        //then
+        assertThat(hits.get().ids()).containsExactly("4");
+    }
+
+    @Test
+    void givenRecipeAppendedOutOfSearchOrder_whenSearching_thenLeaveOnlyTheSearchesMatchingItToMongo() {
+        //given - older than the newest recipe of the index, as a recipe created a little earlier on another node
+        ingredientIndex.onRecipeChanged(RecipeChangedEvent.updated(recipe("0", true, 2, "Onions")));
+
+        //when
+        Optional<IngredientIndex.Hits> onionHits = ingredientIndex.search(SearchCriteriaDto.builder()
+                .includeIngredients(List.of("Onions")).build(), 0, 10);
+        Optional<IngredientIndex.Hits> carrotHits = ingredientIndex.search(SearchCriteriaDto.builder()
+                .includeIngredients(List.of("Carrots")).build(), 0, 10);
+
+        //then
+        assertThat(onionHits).isEmpty();
+        assertThat(carrotHits.get().ids()).containsExactly("3");
+    }
+
+    @Test
+    void givenChangeStreamNotRunning_whenSearching_thenIndexDoesNotAnswer() {
+        //given
+        IngredientIndex followingChanges = new IngredientIndex(mongoTemplate, Runnable::run, event -> { }, true, false, true);
+        when(mongoTemplate.stream(any(Query.class), eq(Recipe.class))).thenReturn(Stream.of(recipe("1", true, 2, "Onions")));
+        followingChanges.rebuild();
+
+        //when
+        Optional<IngredientIndex.Hits> hits = followingChanges.search(SearchCriteriaDto.builder()
+                .includeIngredients(List.of("Onions")).build(), 0, 10);
+
+        //then
+        assertThat(hits).isEmpty();
+        assertThat(ingredientIndex.search(SearchCriteriaDto.builder().includeIngredients(List.of("Onions")).build(), 0, 10)).isPresent();
+    }
+
+    @Test
+    void givenTextCriteria_whenSearching_thenIndexDoesNotAnswer() {
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .includeIngredients(List.of("Onions"))
+                .text("soup")
+                .build();
+
+        //when
+        Optional<IngredientIndex.Hits> hits = ingredientIndex.search(searchCriteriaDto, 0, 10);
+
+        //then
+        assertThat(hits).isEmpty();
+    }
+
+    @Test
+    void givenPantryAndAllowedMissing_whenSearchingPantry_thenRankByFewestMissing() {
+        //given
+        List<String> pantry = List.of("Onions", "Tomatoes", "Rice");
+
+        //when
+        Optional<IngredientIndex.Hits> hits = ingredientIndex.searchPantry(pantry, 1, 0, 10);
+        Optional<IngredientIndex.Hits> exactHits = ingredientIndex.searchPantry(pantry, 0, 0, 10);
+
+        //then
+        assertThat(hits.get().ids()).containsExactly("1", "2");
+        assertThat(hits.get().total()).isEqualTo(2);
+        assertThat(exactHits.get().ids()).containsExactly("1");
+    }
+
+    @Test
+    void givenPantryPages_whenSearchingPantry_thenPageThroughTheRanksInOrder() {
+        //given
+        ingredientIndex.onRecipeChanged(RecipeChangedEvent.created(recipe("4", false, 2, "Onions", "Tomatoes")));
+        ingredientIndex.onRecipeChanged(RecipeChangedEvent.created(recipe("5", false, 2, "Onions", "Rice", "Beef")));
+        List<String> pantry = List.of("Onions", "Tomatoes", "Rice", "Onions");
+
+        //when
+        Optional<IngredientIndex.Hits> firstPage = ingredientIndex.searchPantry(pantry, 1, 0, 2);
+        Optional<IngredientIndex.Hits> secondPage = ingredientIndex.searchPantry(pantry, 1, 2, 2);
+
+        //then
+        assertThat(firstPage.get().ids()).containsExactly("4", "1");
+        assertThat(secondPage.get().ids()).containsExactly("5", "2");
+        assertThat(secondPage.get().total()).isEqualTo(4);
+    }
+
+    @Test
+    void givenManyRecipesWithIngredient_whenPostingListOutgrowsArray_thenMatchesAreKept() {
+        //given
+        OrdinalSet ordinals = new OrdinalSet();
+
+        //when
+        for (int ordinal = OrdinalSet.ARRAY_LIMIT + 10; ordinal >= 0; ordinal--) {
+            ordinals.add(ordinal);
+        }
+        ordinals.remove(7);
+
+        //then
+        assertThat(ordinals.isBitmap()).isTrue();
+        assertThat(ordinals.cardinality()).isEqualTo(OrdinalSet.ARRAY_LIMIT + 10);
+        assertThat(ordinals.contains(7)).isFalse();
+        assertThat(ordinals.contains(OrdinalSet.ARRAY_LIMIT)).isTrue();
+    }
+
+    private static Recipe recipe(String id, boolean vegetarian, int servings, String... ingredients) {
+        return Recipe.builder()
+                .id(id)
+                .vegetarian(vegetarian)
+                .servings(servings)
+                .ingredients(Arrays.stream(ingredients).map(name -> Ingredient.builder().name(name).build()).toList())
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.dto.SearchCriteriaDto;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class RecipeSearchQueryBuilderTest {
+
+    @Test
+    void givenIncludedAndExcludedIngredients_whenBuilt_thenCombineBothIngredientFilters() {
+        //given
+        SearchCriteriaDto searchCriteriaDto = SearchCriteriaDto.builder()
+                .instructionsText("boil")
+                .includeIngredients(List.of("Onions"))
+                .excludeIngredients(List.of("Garlic"))
+                .build();
+
+        //when
+        Document query = new RecipeSearchQueryBuilder().build(searchCriteriaDto, null).getQueryObject();
+
+        //then
+        assertThat(query.toJson()).isEqualTo(Document.parse("""
+                {"$and": [{"ingredients": {"$elemMatch": {"name": {"$in": ["Onions"]}}}},
+                          {"ingredients": {"$not": {"$elemMatch": {"name": {"$in": ["Garlic"]}}}}}],
+                 "instructions": {"$elemMatch": {"description": {"$regularExpression": {"pattern": "boil", "options": "i"}}}}}
+                """).toJson());
+    }
+}
@@ -0,0 +1,44 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.dto.SearchCriteriaDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class SearchCriteriaKeyTest {
+
+    @Test
+    void givenCriteriaDifferingInIngredientOrderAndTextCase_whenKeyed_thenKeysAreEqual() {
+        //given
+        SearchCriteriaDto first = SearchCriteriaDto.builder()
+                .vegetarian(true)
+                .includeIngredients(List.of("Tomatoes", "Onions", "Onions"))
+                .text("Pesto Pasta ")
+                .build();
+        SearchCriteriaDto second = SearchCriteriaDto.builder()
+                .vegetarian(true)
+                .includeIngredients(List.of("Onions", " Tomatoes"))
+                .text("pesto pasta")
+                .build();
+
+        //then
+        assertThat(SearchCriteriaKey.of(first)).isEqualTo(SearchCriteriaKey.of(second));
+        assertThat(SearchCriteriaKey.of(first).hashCode()).isEqualTo(SearchCriteriaKey.of(second).hashCode());
+    }
+
+    @Test
+    void givenCriteriaDifferingInIngredientCase_whenKeyed_thenKeysAreDifferent() {
+        //given
+        SearchCriteriaDto first = SearchCriteriaDto.builder()
+                .includeIngredients(List.of("Onions"))
+                .build();
+        SearchCriteriaDto second = SearchCriteriaDto.builder()
+                .includeIngredients(List.of("onions"))
+                .build();
+
+        //then
+        assertThat(SearchCriteriaKey.of(first)).isNotEqualTo(SearchCriteriaKey.of(second));
+    }
+}
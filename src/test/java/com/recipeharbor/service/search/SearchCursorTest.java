@@ -0,0 +1,68 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.exception.InvalidSearchRequestException;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class SearchCursorTest {
+
+    private static final String RECIPE_ID = "65e841e36ad9c545baf4c9ef";
+
+    @Test
+    void givenCursor_whenEncodedAndDecoded_thenReturnSamePosition() {
+        //given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 6, 10, 15, 30, 123_000_000);
+        SearchCursor cursor = new SearchCursor(createdAt, RECIPE_ID);
+
+        //when
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+
+        //then
+        assertThat(decoded.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(decoded.getId()).isEqualTo(RECIPE_ID);
+    }
+
+    @Test
+    void givenCursorWithoutCreationDate_whenEncodedAndDecoded_thenReturnSamePosition() {
+        //when
+        SearchCursor decoded = SearchCursor.decode(new SearchCursor(null, RECIPE_ID).encode());
+
+        //then
+        assertThat(decoded.getCreatedAt()).isNull();
+        assertThat(decoded.getId()).isEqualTo(RECIPE_ID);
+    }
+
+    @Test
+    void givenBlankToken_whenDecoded_thenReturnFirstPage() {
+        assertThat(SearchCursor.decode("")).isNull();
+        assertThat(SearchCursor.decode(null)).isNull();
+    }
+
+    @Test
+    void givenMalformedToken_whenDecoded_thenThrowsInvalidSearchRequest() {
+        Assertions.assertThrows(InvalidSearchRequestException.class, () -> SearchCursor.decode("not a cursor!"));
+        Assertions.assertThrows(InvalidSearchRequestException.class, () -> SearchCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+
+    @Test
+    void givenCursor_whenAppliedToCriteria_thenAddRangePredicate() {
+        //given
+        Criteria criteria = new Criteria();
+        criteria.and("vegetarian").is(true);
+
+        //when
+        new SearchCursor(LocalDateTime.of(2024, 3, 6, 10, 0), RECIPE_ID).applyTo(criteria);
+
+        //then
+        Document criteriaObject = criteria.getCriteriaObject();
+        assertThat(criteriaObject.get("vegetarian")).isEqualTo(true);
+        assertThat(((List<?>) criteriaObject.get("$or")).size()).isEqualTo(3);
+    }
+}
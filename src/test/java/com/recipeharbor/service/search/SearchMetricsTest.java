@@ -0,0 +1,107 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.dto.SearchCriteriaDto;
+import com.recipeharbor.dto.SlowSearchDto;
+import com.recipeharbor.index.SearchPlanInspector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SearchMetricsTest {
+
+    private static final SearchShape VEGETARIAN_SERVINGS = SearchShape.of(SearchCriteriaDto.builder().vegetarian(true).servings(4).build());
+
+    private SimpleMeterRegistry meterRegistry;
+    private SearchPlanInspector searchPlanInspector;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        searchPlanInspector = mock(SearchPlanInspector.class);
+    }
+
+    @Test
+    void givenFastSearchesNotSampled_whenRecorded_thenTimeThemByShapeWithoutExplaining() {
+        //given
+        SearchMetrics searchMetrics = new SearchMetrics(meterRegistry, searchPlanInspector, Runnable::run, 500, 10, 0.0, 2);
+
+        //when
+        searchMetrics.recordQuery(VEGETARIAN_SERVINGS, System.nanoTime(), new Query());
+        searchMetrics.recordIndexSearch(VEGETARIAN_SERVINGS, System.nanoTime());
+
+        //then
+        assertThat(meterRegistry.get(SearchMetrics.TIMER).tag("shape", "vegetarian+servings").tag("source", "mongo").timer().count())
+                .isEqualTo(1L);
+        assertThat(meterRegistry.get(SearchMetrics.TIMER).tag("source", "ingredient-index").timer().count()).isEqualTo(1L);
+        verify(searchPlanInspector, never()).explainExecution(any());
+        assertThat(searchMetrics.getSlowSearches().isEmpty()).isTrue();
+    }
+
+    @Test
+    void givenSampledSearch_whenRecorded_thenRecordTheDocsExaminedRatioOfItsPlan() {
+        //given
+        SearchMetrics searchMetrics = new SearchMetrics(meterRegistry, searchPlanInspector, Runnable::run, 500, 10, 1.0, 2);
+        when(searchPlanInspector.explainExecution(any())).thenReturn(new SearchPlanInspector.ExplainedExecution(
+                List.of("LIMIT", "FETCH", "IXSCAN"), List.of("vegetarian_servings_createdAt_id"), 40, 40, 10));
+
+        //when
+        searchMetrics.recordQuery(VEGETARIAN_SERVINGS, System.nanoTime(), new Query());
+
+        //then
+        assertThat(meterRegistry.get(SearchMetrics.DOCS_EXAMINED_RATIO).tag("shape", "vegetarian+servings").summary().max())
+                .isEqualTo(4.0);
+        assertThat(searchMetrics.getSlowSearches().isEmpty()).isTrue();
+    }
+
+    @Test
+    void givenSearchRunAsAnAggregation_whenSampled_thenExplainTheAggregationInsteadOfAFind() {
+        //given
+        SearchMetrics searchMetrics = new SearchMetrics(meterRegistry, searchPlanInspector, Runnable::run, 500, 10, 1.0, 2);
+        SearchPlanInspector.ExplainedExecution aggregation = new SearchPlanInspector.ExplainedExecution(
+                List.of("FETCH", "IXSCAN", "$facet"), List.of("vegetarian_servings_createdAt_id"), 100, 100, 10);
+
+        //when
+        searchMetrics.recordQuery(VEGETARIAN_SERVINGS, System.nanoTime(), new Query(), () -> aggregation);
+
+        //then
+        verify(searchPlanInspector, never()).explainExecution(any());
+        assertThat(meterRegistry.get(SearchMetrics.DOCS_EXAMINED_RATIO).tag("shape", "vegetarian+servings").summary().max())
+                .isEqualTo(10.0);
+    }
+
+    @Test
+    void givenSlowSearches_whenRecorded_thenKeepTheLastOnesWithTheirPlanNewestFirst() {
+        //given
+        SearchMetrics searchMetrics = new SearchMetrics(meterRegistry, searchPlanInspector, Runnable::run, 0, 2, 0.0, 2);
+        when(searchPlanInspector.explainExecution(any())).thenReturn(new SearchPlanInspector.ExplainedExecution(
+                List.of("SORT", "COLLSCAN"), List.of(), 0, 1000, 10));
+        long start = System.nanoTime() - TimeUnit.SECONDS.toNanos(1);
+
+        //when
+        for (int servings = 1; servings <= 3; servings++) {
+            searchMetrics.recordQuery(VEGETARIAN_SERVINGS, start, new Query(Criteria.where("servings").is(servings)));
+        }
+
+        //then
+        List<SlowSearchDto> slowSearches = searchMetrics.getSlowSearches();
+        assertThat(slowSearches.size()).isEqualTo(2);
+        assertThat(slowSearches.get(0).getQuery()).isEqualTo("{ \"servings\" : 3}");
+        assertThat(slowSearches.get(1).getQuery()).isEqualTo("{ \"servings\" : 2}");
+        assertThat(slowSearches.get(0).isCollectionScan()).isTrue();
+        assertThat(slowSearches.get(0).getDocsExamined()).isEqualTo(1000L);
+        assertThat(slowSearches.get(0).getDurationMillis() >= 1000).isTrue();
+        assertThat(slowSearches.get(0).getFields()).isEqualTo(List.of("vegetarian", "servings"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.recipeharbor.service.search;
+
+import com.recipeharbor.dto.SearchCriteriaDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class SearchShapeTest {
+
+    @Test
+    void givenCriteriaWithDifferentValues_whenShaped_thenShareTheSameShape() {
+        //given
+        SearchCriteriaDto first = SearchCriteriaDto.builder().vegetarian(true).servings(2).build();
+        SearchCriteriaDto second = SearchCriteriaDto.builder().vegetarian(false).servings(8).build();
+
+        //when
+        SearchShape shape = SearchShape.of(first);
+
+        //then
+        assertThat(shape).isSameAs(SearchShape.of(second));
+        assertThat(shape.getName()).isEqualTo("vegetarian+servings");
+    }
+
+    @Test
+    void givenAllShapes_whenListed_thenEveryCombinationOfFiltersIsThere() {
+        //when
+        List<SearchShape> shapes = SearchShape.all();
+
+        //then
+        assertThat(shapes.size()).isEqualTo(63);
+        assertThat(shapes.stream().anyMatch(shape -> shape.getFields().contains("includeIngredients")
+                && shape.getFields().contains("excludeIngredients"))).isTrue();
+    }
+
+    @Test
+    void givenShape_whenSampleCriteriaBuilt_thenSampleHasTheSameShape() {
+        SearchShape.all().forEach(shape -> assertThat(SearchShape.of(shape.sampleCriteria())).isSameAs(shape));
+    }
+}
@@ -0,0 +1,67 @@
+package com.recipeharbor.startup;
+
+import com.recipeharbor.config.AbstractContainerBaseTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+@DataMongoTest
+class MongoLeaseTestIT extends AbstractContainerBaseTest {
+
+    private static final String LEASE = "test-lease";
+
+    @Autowired private MongoTemplate mongoTemplate;
+
+    private MongoLease node1;
+    private MongoLease node2;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(MongoLease.COLLECTION);
+        node1 = new MongoLease(mongoTemplate, "node-1");
+        node2 = new MongoLease(mongoTemplate, "node-2");
+    }
+
+    @Test
+    void givenLeaseHeld_whenAnotherNodeTriesToAcquireIt_thenOnlyTheHolderGetsIt() {
+        //when
+        boolean acquired = node1.tryAcquire(LEASE, Duration.ofMinutes(1));
+
+        //then
+        assertThat(acquired).isTrue();
+        assertThat(node2.tryAcquire(LEASE, Duration.ofMinutes(1))).isFalse();
+        assertThat(node1.tryAcquire(LEASE, Duration.ofMinutes(1))).isTrue();
+    }
+
+    @Test
+    void givenLeaseReleased_whenAnotherNodeTriesToAcquireIt_thenItGetsIt() {
+        //given
+        node1.tryAcquire(LEASE, Duration.ofMinutes(1));
+
+        //when
+        node1.release(LEASE);
+
+        //then
+        assertThat(node2.tryAcquire(LEASE, Duration.ofMinutes(1))).isTrue();
+    }
+
+    @Test
+    void givenLeaseExpired_whenAnotherNodeTriesToAcquireIt_thenItTakesItOver() {
+        //given
+        node1.tryAcquire(LEASE, Duration.ofMillis(-1));
+
+        //when
+        boolean acquired = node2.tryAcquire(LEASE, Duration.ofMinutes(1));
+
+        //then
+        assertThat(acquired).isTrue();
+        node1.release(LEASE);
+        assertThat(node1.tryAcquire(LEASE, Duration.ofMinutes(1))).isFalse();
+    }
+}
@@ -0,0 +1,160 @@
+package com.recipeharbor.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.recipeharbor.entity.Recipe;
+import com.recipeharbor.service.event.RecipesCreatedEvent;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecipeSeederTest {
+
+    private static final String SEED = """
+            [
+              {"name": "Recipe 1", "vegetarian": true, "servings": 2, "ingredients": [{"name": "Potatoes", "quantity": 1, "unit": "unit"}]},
+              {"name": "Recipe 2", "vegetarian": false, "servings": 4},
+              {"name": "Recipe 3", "vegetarian": true, "servings": 1},
+              {"name": "Recipe 4", "vegetarian": false, "servings": 6},
+              {"name": "Recipe 5", "vegetarian": true, "servings": 3}
+            ]
+            """;
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulkOperations;
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulkOperations = mock(BulkOperations.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Recipe.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenEmptyCollection_whenSeeded_thenStreamTheRecipesInBatchesWithIdsOfTheirPosition() throws IOException {
+        //given
+        AtomicInteger heartbeats = new AtomicInteger();
+
+        //when
+        long written = seeder(2).seed(heartbeats::incrementAndGet);
+
+        //then
+        ArgumentCaptor<List<Recipe>> batches = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations, times(3)).insert(batches.capture());
+        assertThat(batches.getAllValues().get(0).size()).isEqualTo(2);
+        assertThat(batches.getAllValues().get(2).size()).isEqualTo(1);
+        Recipe last = batches.getAllValues().get(2).get(0);
+        assertThat(last.getName()).isEqualTo("Recipe 5");
+        assertThat(last.getId()).isEqualTo(RecipeSeeder.seedRecipeId(4));
+        assertThat(written).isEqualTo(5L);
+        assertThat(heartbeats.get()).isEqualTo(2);
+        verify(eventPublisher, times(3)).publishEvent(any(RecipesCreatedEvent.class));
+    }
+
+    @Test
+    void givenSeedInterruptedHalfWay_whenSeededAgain_thenSkipTheRecipesAlreadyWritten() throws IOException {
+        //given
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq(RecipeSeeder.COLLECTION))).thenReturn(new Document("startedAt", "earlier"));
+        when(mongoTemplate.exists(any(Query.class), eq(Recipe.class))).thenReturn(true);
+        BulkOperationException duplicates = mock(BulkOperationException.class);
+        when(duplicates.getErrors()).thenReturn(List.of(
+                new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0),
+                new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1)));
+        when(bulkOperations.execute()).thenThrow(duplicates);
+
+        //when
+        long written = seeder(10).seed(() -> {});
+
+        //then
+        assertThat(written).isEqualTo(3L);
+        ArgumentCaptor<RecipesCreatedEvent> event = ArgumentCaptor.forClass(RecipesCreatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getRecipes().size()).isEqualTo(3);
+    }
+
+    @Test
+    void givenSeedAlreadyLoaded_whenSeeded_thenWriteNothing() throws IOException {
+        //given
+        when(mongoTemplate.findOne(any(Query.class), eq(Document.class), eq(RecipeSeeder.COLLECTION))).thenReturn(new Document("completedAt", "earlier"));
+
+        //when
+        long written = seeder(2).seed(() -> {});
+
+        //then
+        assertThat(written).isEqualTo(0L);
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Recipe.class));
+    }
+
+    @Test
+    void givenCollectionFilledWithoutSeed_whenSeeded_thenLeaveItAsItIs() throws IOException {
+        //given
+        when(mongoTemplate.exists(any(Query.class), eq(Recipe.class))).thenReturn(true);
+
+        //when
+        long written = seeder(2).seed(() -> {});
+
+        //then
+        assertThat(written).isEqualTo(0L);
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Recipe.class));
+    }
+
+    @Test
+    void givenSeedWithNonObjectElement_whenSeeded_thenFailWithoutMarkingItLoaded() {
+        //given
+        String seed = SEED.replace("{\"name\": \"Recipe 4\", \"vegetarian\": false, \"servings\": 6}", "null");
+
+        //when
+        Assertions.assertThrows(IOException.class, () -> {
+            seeder(2, seed).seed(() -> {});
+        });
+
+        //then
+        verify(bulkOperations, times(1)).insert(anyList());
+        verify(mongoTemplate, never()).upsert(any(Query.class),
+                argThat(update -> update.getUpdateObject().toJson().contains("completedAt")), eq(RecipeSeeder.COLLECTION));
+    }
+
+    private RecipeSeeder seeder(int batchSize) {
+        return seeder(batchSize, SEED);
+    }
+
+    private RecipeSeeder seeder(int batchSize, String seed) {
+        Resource resource = new ByteArrayResource(seed.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return "data.json";
+            }
+        };
+        return new RecipeSeeder(mongoTemplate, new ObjectMapper(), eventPublisher, true, resource, batchSize);
+    }
+}
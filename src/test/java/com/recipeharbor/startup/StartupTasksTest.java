@@ -0,0 +1,117 @@
+package com.recipeharbor.startup;
+
+import com.recipeharbor.index.RecipeIndexManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StartupTasksTest {
+
+    private MongoLease mongoLease;
+    private RecipeSeeder recipeSeeder;
+    private RecipeIndexManager recipeIndexManager;
+    private StartupTasks startupTasks;
+
+    @BeforeEach
+    void setUp() {
+        mongoLease = mock(MongoLease.class);
+        when(mongoLease.getOwner()).thenReturn("node-1");
+        recipeSeeder = mock(RecipeSeeder.class);
+        recipeIndexManager = mock(RecipeIndexManager.class);
+        startupTasks = new StartupTasks(mongoLease, recipeSeeder, recipeIndexManager, Runnable::run,
+                mock(TaskScheduler.class), false, 60_000, 1);
+    }
+
+    @Test
+    void givenLeaseFree_whenApplicationReady_thenSeedAndBuildTheIndexesUnderTheLease() throws IOException {
+        //given
+        when(mongoLease.tryAcquire(eq(StartupTasks.LEASE), any())).thenReturn(true);
+        when(recipeSeeder.seed(any())).thenReturn(5L);
+
+        //when
+        startupTasks.onApplicationReady();
+
+        //then
+        InOrder order = inOrder(mongoLease, recipeSeeder, recipeIndexManager);
+        order.verify(mongoLease).tryAcquire(eq(StartupTasks.LEASE), any());
+        order.verify(recipeSeeder).seed(any());
+        order.verify(recipeIndexManager).ensureIndexes();
+        order.verify(mongoLease).release(StartupTasks.LEASE);
+        assertThat(startupTasks.getState()).isEqualTo(StartupTasks.State.DONE);
+        assertThat(startupTasks.getSeeded()).isEqualTo(5L);
+    }
+
+    @Test
+    void givenLeaseHeldByAnotherNode_whenApplicationReady_thenWaitUntilItIsReleased() throws IOException {
+        //given
+        when(mongoLease.tryAcquire(eq(StartupTasks.LEASE), any())).thenReturn(false, false, true);
+
+        //when
+        startupTasks.onApplicationReady();
+
+        //then
+        verify(mongoLease, times(4)).tryAcquire(eq(StartupTasks.LEASE), any());
+        verify(recipeSeeder).seed(any());
+        assertThat(startupTasks.getState()).isEqualTo(StartupTasks.State.DONE);
+    }
+
+    @Test
+    void givenLeaseHeldByAnotherNode_whenApplicationReadyAsync_thenPollFromTheSchedulerAndRunTheTasksOnce() throws Exception {
+        //given
+        when(mongoLease.tryAcquire(eq(StartupTasks.LEASE), any())).thenReturn(false, false, true);
+        AtomicInteger executed = new AtomicInteger();
+        ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.initialize();
+        startupTasks = new StartupTasks(mongoLease, recipeSeeder, recipeIndexManager, task -> {
+            executed.incrementAndGet();
+            task.run();
+        }, taskScheduler, true, 60_000, 1);
+
+        //when
+        startupTasks.onApplicationReady();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (startupTasks.getState() != StartupTasks.State.DONE && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(20);
+        taskScheduler.shutdown();
+
+        //then
+        assertThat(startupTasks.getState()).isEqualTo(StartupTasks.State.DONE);
+        assertThat(executed.get()).isEqualTo(1);
+        verify(recipeSeeder, times(1)).seed(any());
+        verify(mongoLease, times(4)).tryAcquire(eq(StartupTasks.LEASE), any());
+    }
+
+    @Test
+    void givenSeedFails_whenApplicationReady_thenReportDownAndReleaseTheLease() throws IOException {
+        //given
+        when(mongoLease.tryAcquire(eq(StartupTasks.LEASE), any())).thenReturn(true);
+        when(recipeSeeder.seed(any())).thenThrow(new IOException("Seed data.json is not a JSON array of recipes"));
+
+        //when
+        startupTasks.onApplicationReady();
+
+        //then
+        verify(recipeIndexManager, never()).ensureIndexes();
+        verify(mongoLease).release(StartupTasks.LEASE);
+        assertThat(startupTasks.getState()).isEqualTo(StartupTasks.State.FAILED);
+        assertThat(new StartupHealthIndicator(startupTasks, mongoLease).health().getStatus()).isEqualTo(Status.DOWN);
+    }
+}